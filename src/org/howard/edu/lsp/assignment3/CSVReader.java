@@ -2,12 +2,27 @@ package org.howard.edu.lsp.assignment3;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Handles reading CSV files and converting them to Product objects.
@@ -17,6 +32,17 @@ import java.util.List;
 public class CSVReader {
     
     private static final int EXPECTED_COLUMNS = 4;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final long MIN_CHUNK_BYTES = 1L << 20;
+    private static final long MAX_CHUNK_BYTES = 64L << 20;
+    private static final int SCAN_BUFFER_BYTES = 8192;
+    private static final int QUOTE_SCAN_BUFFER_BYTES = 1 << 16;
+
+    // Record boundary scan states; see recordEnd
+    private static final int FIELD_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTE_SEEN = 3;
 
     /**
      * Reads a CSV file and converts it to a list of Product objects.
@@ -30,53 +56,337 @@ public class CSVReader {
         List<Product> products = new ArrayList<>();
         
         try (BufferedReader reader = Files.newBufferedReader(inputPath, StandardCharsets.UTF_8)) {
-            String line;
-            boolean isFirstLine = true;
+            RecordReader records = new RecordReader(reader);
+            records.skipRecord(); // Skip header row
             
-            while ((line = reader.readLine()) != null) {
-                // Skip header row
-                if (isFirstLine) {
-                    isFirstLine = false;
+            Product product;
+            while ((product = records.next()) != null) {
+                products.add(product);
+            }
+        }
+        
+        return products;
+    }
+
+    /**
+     * Lazily reads a CSV file as a stream of Product objects.
+     * Records are parsed one at a time as the stream is consumed, so memory use
+     * does not grow with the size of the file. Skips the header row and
+     * malformed rows, exactly like {@link #readProducts(Path)}.
+     * The returned stream holds the file open and must be closed.
+     *
+     * @param inputPath the path to the input CSV file
+     * @return a stream of valid Product objects
+     * @throws IOException if the file cannot be opened
+     */
+    public Stream<Product> streamProducts(Path inputPath) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(inputPath, StandardCharsets.UTF_8);
+        RecordReader records = new RecordReader(reader);
+        Iterator<Product> iterator = new Iterator<Product>() {
+            private boolean headerSkipped;
+            private Product next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    try {
+                        if (!headerSkipped) {
+                            headerSkipped = true;
+                            records.skipRecord();
+                        }
+                        next = records.next();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Product next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Product product = next;
+                next = null;
+                return product;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(() -> {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+    }
+
+    /**
+     * Reads a CSV file in parallel using the common fork-join pool.
+     *
+     * @param inputPath the path to the input CSV file
+     * @return a list of valid Product objects, in file order
+     * @throws IOException if there's an error reading the file
+     * @see #readProductsParallel(Path, ForkJoinPool)
+     */
+    public List<Product> readProductsParallel(Path inputPath) throws IOException {
+        return readProductsParallel(inputPath, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Reads a CSV file in parallel and converts it to a list of Product objects.
+     * The file is split into byte ranges that each end on a record boundary, every
+     * range is parsed as a separate task on the given pool, and the results are
+     * concatenated in range order so products keep their original row order.
+     * Skips the header row and malformed rows, like {@link #readProducts(Path)}.
+     *
+     * @param inputPath the path to the input CSV file
+     * @param pool the fork-join pool that parses the ranges
+     * @return a list of valid Product objects, in file order
+     * @throws IOException if there's an error reading the file
+     */
+    public List<Product> readProductsParallel(Path inputPath, ForkJoinPool pool) throws IOException {
+        try (FileChannel channel = FileChannel.open(inputPath, StandardOpenOption.READ)) {
+            long[] bounds = splitAtLineBoundaries(channel, pool.getParallelism() * CHUNKS_PER_THREAD);
+
+            List<Future<List<Product>>> chunks = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                chunks.add(pool.submit(() -> parseRange(channel, start, end)));
+            }
+
+            List<Product> products = new ArrayList<>();
+            for (Future<List<Product>> chunk : chunks) {
+                products.addAll(awaitChunk(chunk));
+            }
+            return products;
+        }
+    }
+
+    /**
+     * Computes range boundaries for parallel parsing.
+     * The first boundary is the start of the first data row (just past the header)
+     * and every later boundary sits just past a newline byte that ends a record,
+     * so no record spans two ranges. Newline and quote bytes never occur inside
+     * multi-byte UTF-8 sequences, which makes it safe to split on them without
+     * decoding.
+     *
+     * @param channel the open file
+     * @param targetChunks the number of ranges to aim for
+     * @return ascending boundary offsets; consecutive pairs delimit a range
+     * @throws IOException if there's an error reading the file
+     */
+    private long[] splitAtLineBoundaries(FileChannel channel, int targetChunks) throws IOException {
+        long size = channel.size();
+        long dataStart = recordEnd(channel, 0, 0);
+        long chunkBytes = Math.min(MAX_CHUNK_BYTES,
+            Math.max(MIN_CHUNK_BYTES, (size - dataStart) / Math.max(1, targetChunks)));
+
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(dataStart);
+        long position = dataStart;
+        while (position < size) {
+            long target = position + chunkBytes;
+            position = target >= size ? size : nextRecordStart(channel, position, target);
+            bounds.add(position);
+        }
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Returns the offset just past the first newline at or after {@code target}
+     * that ends a record, given that a record starts at {@code from}.
+     * When there is no quote byte between the two, every newline ends a record
+     * and the cheap line search is enough; otherwise the record state machine
+     * is replayed from {@code from} so that line breaks inside quoted fields
+     * are passed over.
+     */
+    private long nextRecordStart(FileChannel channel, long from, long target) throws IOException {
+        long lineStart = nextLineStart(channel, target);
+        if (!containsQuote(channel, from, lineStart)) {
+            return lineStart;
+        }
+        return recordEnd(channel, from, target);
+    }
+
+    /**
+     * Returns the offset just past the first record terminator at or after
+     * {@code target}, given that a record starts at {@code from}, or the file
+     * size if there is none. Tracks quoted fields the same way
+     * {@link CSVRecordParser} does, and treats \n, \r and \r\n as terminators
+     * the same way {@link BufferedReader#readLine()} does.
+     */
+    private long recordEnd(FileChannel channel, long from, long target) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+        long position = from;
+        int state = FIELD_START;
+        boolean sawCarriageReturn = false;
+        while (channel.read(buffer.clear(), position) > 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                if (sawCarriageReturn) {
+                    return b == '\n' ? position + 1 : position;
+                }
+                position++;
+                if ((b == '\n' || b == '\r') && state != QUOTED) {
+                    if (position > target) {
+                        if (b == '\n') {
+                            return position;
+                        }
+                        sawCarriageReturn = true;
+                    }
+                    state = FIELD_START;
                     continue;
                 }
-                
-                Product product = parseProductLine(line);
-                if (product != null) {
-                    products.add(product);
+                switch (state) {
+                    case FIELD_START:
+                        if (b == '"') {
+                            state = QUOTED;
+                        } else if (b != ',' && (b & 0xFF) > ' ') {
+                            state = UNQUOTED;
+                        }
+                        break;
+                    case QUOTED:
+                        if (b == '"') {
+                            state = QUOTE_SEEN;
+                        }
+                        break;
+                    case QUOTE_SEEN:
+                        // An escaped quote reopens the field; anything else closes it
+                        state = b == '"' ? QUOTED : b == ',' ? FIELD_START : UNQUOTED;
+                        break;
+                    default: // UNQUOTED, where quotes are literal
+                        if (b == ',') {
+                            state = FIELD_START;
+                        }
+                        break;
                 }
             }
         }
-        
+        return position;
+    }
+
+    /**
+     * Returns the offset just past the first newline byte at or after {@code from},
+     * or the file size if there is none.
+     */
+    private long nextLineStart(FileChannel channel, long from) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_BYTES);
+        long position = from;
+        while (channel.read(buffer.clear(), position) > 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position++;
+                if (buffer.get() == '\n') {
+                    return position;
+                }
+            }
+        }
+        return channel.size();
+    }
+
+    /**
+     * Checks whether any byte in {@code [from, to)} is a quote.
+     */
+    private boolean containsQuote(FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(QUOTE_SCAN_BUFFER_BYTES);
+        byte[] bytes = buffer.array();
+        long position = from;
+        while (position < to) {
+            buffer.clear().limit((int) Math.min(bytes.length, to - position));
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == '"') {
+                    return true;
+                }
+            }
+            position += read;
+        }
+        return false;
+    }
+
+    /**
+     * Reads and parses the rows in one byte range of the file.
+     */
+    private List<Product> parseRange(FileChannel channel, long start, long end) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                break;
+            }
+        }
+        String text = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+        RecordReader records = new RecordReader(new BufferedReader(new StringReader(text)));
+        List<Product> products = new ArrayList<>();
+        Product product;
+        while ((product = records.next()) != null) {
+            products.add(product);
+        }
         return products;
     }
 
     /**
-     * Parses a single CSV line into a Product object.
+     * Waits for a parsed range, unwrapping I/O failures from the worker.
+     */
+    private List<Product> awaitChunk(Future<List<Product>> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading CSV chunks");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to parse CSV chunk", e.getCause());
+        }
+    }
+
+    /**
+     * Parses a single CSV line without quote characters into a Product object.
      * Returns null if the line is malformed or invalid.
      *
      * @param line the CSV line to parse
      * @return a Product object or null if parsing fails
      */
-    private Product parseProductLine(String line) {
+    private static Product parseProductLine(String line) {
         if (line == null || line.trim().isEmpty()) {
             return null;
         }
 
         String[] parts = line.split(",", -1);
-        if (parts.length < EXPECTED_COLUMNS) {
+        
+        // Trim all parts
+        return toProduct(trimAll(parts));
+    }
+
+    /**
+     * Builds a Product from the fields of one record. Fields from unquoted
+     * text are expected to be trimmed already; quoted fields are used as is.
+     * Returns null if the record is malformed or invalid.
+     *
+     * @param fields the parsed fields
+     * @return a Product object or null if the fields are invalid
+     */
+    static Product toProduct(String[] fields) {
+        if (fields.length < EXPECTED_COLUMNS) {
             return null; // Skip malformed rows
         }
-
-        // Trim all parts
-        String[] trimmedParts = trimAll(parts);
         
-        String productId = trimmedParts[0];
-        String name = trimmedParts[1];
-        String priceStr = trimmedParts[2];
-        String category = trimmedParts[3];
+        String productId = fields[0];
+        String name = fields[1];
+        String priceStr = fields[2].trim();
+        String category = fields[3];
 
         // Validate required fields
-        if (productId.isEmpty() || name.isEmpty() || priceStr.isEmpty() || category.isEmpty()) {
+        if (isBlank(productId) || isBlank(name) || priceStr.isEmpty() || isBlank(category)) {
             return null;
         }
 
@@ -91,17 +401,73 @@ public class CSVReader {
         return new Product(productId, name, price, category);
     }
 
+    private static boolean isBlank(String value) {
+        return value.trim().isEmpty();
+    }
+
     /**
      * Trims all elements in a string array.
      *
      * @param parts the array to trim
      * @return a new array with trimmed elements
      */
-    private String[] trimAll(String[] parts) {
+    private static String[] trimAll(String[] parts) {
         String[] trimmed = new String[parts.length];
         for (int i = 0; i < parts.length; i++) {
             trimmed[i] = parts[i] == null ? "" : parts[i].trim();
         }
         return trimmed;
     }
+
+    /**
+     * Reads products record by record from lines of CSV text. Lines without a
+     * quote character take the plain split fast path; the rest go through a
+     * {@link CSVRecordParser}, which pulls in further lines while a quoted
+     * field is open.
+     */
+    private static class RecordReader {
+        private final BufferedReader reader;
+        private final CSVRecordParser parser = new CSVRecordParser();
+
+        RecordReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Skips one record, such as the header row.
+         */
+        void skipRecord() throws IOException {
+            String line = reader.readLine();
+            if (line != null && line.indexOf('"') >= 0) {
+                parseQuoted(line);
+            }
+        }
+
+        /**
+         * Returns the next valid product, skipping malformed records, or null
+         * at the end of the input.
+         */
+        Product next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Product product = line.indexOf('"') < 0 ? parseProductLine(line) : parseQuoted(line);
+                if (product != null) {
+                    return product;
+                }
+            }
+            return null;
+        }
+
+        private Product parseQuoted(String line) throws IOException {
+            while (!parser.feed(line)) {
+                line = reader.readLine();
+                if (line == null) {
+                    parser.reset(); // Quoted field left open at the end of the input
+                    return null;
+                }
+            }
+            String[] fields = parser.takeFields();
+            return fields == null ? null : toProduct(fields);
+        }
+    }
 }
@@ -0,0 +1,151 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental RFC 4180 parser for CSV records that contain quote characters.
+ * Physical lines are fed in one at a time, without their terminators; a
+ * record whose quoted field is still open at the end of a line continues on
+ * the next line, with the line break kept in the field as a single \n.
+ *
+ * The parser is a small state machine that jumps between delimiter and quote
+ * characters with {@link String#indexOf(int, int)} rather than stepping
+ * through every character. Fields follow the same rules as the unquoted fast
+ * path in {@link CSVReader}, extended for quoting:
+ * <ul>
+ *   <li>Unquoted fields are trimmed, and a quote inside one is kept as a
+ *       literal character.</li>
+ *   <li>A field whose first non-whitespace character is a quote is quoted.
+ *       Its content is kept verbatim, with each {@code ""} unescaped to
+ *       {@code "}; whitespace around the quotes is ignored.</li>
+ *   <li>Any other text after a closing quote makes the record malformed.</li>
+ * </ul>
+ * A record is therefore split at exactly the line breaks that lie outside
+ * quoted fields, which is what {@link CSVReader} relies on when it looks for
+ * record boundaries in raw bytes.
+ */
+class CSVRecordParser {
+
+    private static final int FIELD_START = 0;
+    private static final int QUOTED = 1;
+    private static final int QUOTE_SEEN = 2;
+    private static final int AFTER_QUOTED = 3;
+
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+    private int state = FIELD_START;
+    private boolean malformed;
+
+    /**
+     * Parses the next physical line of the current record.
+     *
+     * @param line the line, without its terminator
+     * @return true if the record is complete, false if a quoted field
+     *         continues on the next line
+     */
+    boolean feed(String line) {
+        if (state == QUOTED) {
+            field.append('\n');
+        }
+        int length = line.length();
+        int i = 0;
+        while (true) {
+            switch (state) {
+                case FIELD_START: {
+                    while (i < length && line.charAt(i) <= ' ') {
+                        i++;
+                    }
+                    if (i == length) {
+                        fields.add(""); // Trailing empty field
+                        return true;
+                    }
+                    if (line.charAt(i) == '"') {
+                        state = QUOTED;
+                        i++;
+                        break;
+                    }
+                    int comma = line.indexOf(',', i);
+                    fields.add(line.substring(i, comma < 0 ? length : comma).trim());
+                    if (comma < 0) {
+                        return true;
+                    }
+                    i = comma + 1;
+                    break;
+                }
+                case QUOTED: {
+                    int quote = line.indexOf('"', i);
+                    if (quote < 0) {
+                        field.append(line, i, length);
+                        return false;
+                    }
+                    field.append(line, i, quote);
+                    state = QUOTE_SEEN;
+                    i = quote + 1;
+                    break;
+                }
+                case QUOTE_SEEN:
+                    if (i < length && line.charAt(i) == '"') {
+                        field.append('"'); // Escaped quote
+                        state = QUOTED;
+                        i++;
+                        break;
+                    }
+                    fields.add(field.toString());
+                    field.setLength(0);
+                    state = AFTER_QUOTED;
+                    break;
+                default: { // AFTER_QUOTED
+                    while (i < length && line.charAt(i) <= ' ') {
+                        i++;
+                    }
+                    if (i == length) {
+                        state = FIELD_START;
+                        return true;
+                    }
+                    int comma = line.indexOf(',', i);
+                    if (comma != i) {
+                        malformed = true; // Text between a closing quote and the delimiter
+                    }
+                    if (comma < 0) {
+                        state = FIELD_START;
+                        return true;
+                    }
+                    state = FIELD_START;
+                    i = comma + 1;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if a quoted field is open and the record needs more lines
+     */
+    boolean isPending() {
+        return state == QUOTED;
+    }
+
+    /**
+     * Returns the fields of the completed record and resets the parser for
+     * the next one.
+     *
+     * @return the fields, or null if the record is malformed
+     */
+    String[] takeFields() {
+        String[] result = malformed ? null : fields.toArray(new String[0]);
+        reset();
+        return result;
+    }
+
+    /**
+     * Discards the current record, for example one left unterminated at the
+     * end of the input.
+     */
+    void reset() {
+        fields.clear();
+        field.setLength(0);
+        state = FIELD_START;
+        malformed = false;
+    }
+}
@@ -5,6 +5,7 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -14,7 +15,7 @@ import java.util.List;
  */
 public class CSVWriter {
     
-    private static final String CSV_HEADER = "ProductID,Name,Price,Category,PriceRange";
+    static final String CSV_HEADER = "ProductID,Name,Price,Category,PriceRange";
 
     /**
      * Writes a list of products to a CSV file.
@@ -25,11 +26,20 @@ public class CSVWriter {
      * @throws IOException if there's an error writing the file
      */
     public void writeProducts(Path outputPath, List<Product> products) throws IOException {
-        // Ensure parent directory exists
-        Path parent = outputPath.getParent();
-        if (parent != null && !Files.exists(parent)) {
-            Files.createDirectories(parent);
-        }
+        writeProducts(outputPath, products.iterator());
+    }
+
+    /**
+     * Writes products to a CSV file as they are produced by an iterator.
+     * Only one product is held at a time, so this can be fed from a lazy
+     * source of any size. Creates the output directory if it doesn't exist.
+     *
+     * @param outputPath the path to the output CSV file
+     * @param products the products to write, in output order
+     * @throws IOException if there's an error writing the file
+     */
+    public void writeProducts(Path outputPath, Iterator<Product> products) throws IOException {
+        createParentDirectories(outputPath);
 
         try (BufferedWriter writer = Files.newBufferedWriter(outputPath, StandardCharsets.UTF_8)) {
             // Write header
@@ -37,13 +47,26 @@ public class CSVWriter {
             writer.newLine();
             
             // Write products
-            for (Product product : products) {
-                writer.write(product.toString());
+            while (products.hasNext()) {
+                writer.write(products.next().toString());
                 writer.newLine();
             }
         }
     }
 
+    /**
+     * Ensures the parent directory of an output file exists.
+     *
+     * @param outputPath the path to the output CSV file
+     * @throws IOException if the directory can't be created
+     */
+    static void createParentDirectories(Path outputPath) throws IOException {
+        Path parent = outputPath.getParent();
+        if (parent != null && !Files.exists(parent)) {
+            Files.createDirectories(parent);
+        }
+    }
+
     /**
      * Writes only the CSV header to a file.
      * Used when there are no products to write.
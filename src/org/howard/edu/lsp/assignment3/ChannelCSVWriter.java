@@ -0,0 +1,271 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+
+/**
+ * CSV writer that encodes products straight into a reusable direct buffer.
+ * Instead of formatting each row with {@link Product#toString()}, this writer
+ * encodes the fields as UTF-8 one character at a time, writes prices from
+ * their unscaled digits, and drains the buffer through a {@link FileChannel}
+ * in large writes, so no String or formatter is created per row. Prices of up
+ * to 15 significant digits are written without allocating at all; longer
+ * ones allocate their unscaled BigInteger or plain string.
+ *
+ * Produces byte-identical output to {@link CSVWriter}, including field quoting
+ * and the platform line separator. The buffer is reused across calls, so an
+ * instance must not be shared by threads that write at the same time.
+ */
+public class ChannelCSVWriter extends CSVWriter {
+
+    /** The default buffer size. */
+    public static final int DEFAULT_BUFFER_BYTES = 256 << 10;
+
+    private static final int MIN_BUFFER_BYTES = 64;
+    private static final byte[] HEADER = CSV_HEADER.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_FAST_PRICE_DIGITS = 19;
+    private static final int MAX_EXACT_DOUBLE_DIGITS = 15;
+    /** Returned by {@link #shortUnscaledValue(BigDecimal)} for prices it doesn't cover. */
+    static final long NOT_SHORT = Long.MIN_VALUE;
+    private static final double[] DOUBLE_POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final int bufferBytes;
+    private final byte[] digits = new byte[MAX_FAST_PRICE_DIGITS];
+    private ByteBuffer buffer;
+    private FileChannel channel;
+
+    /**
+     * Constructs a writer with a buffer of {@link #DEFAULT_BUFFER_BYTES}.
+     */
+    public ChannelCSVWriter() {
+        this(DEFAULT_BUFFER_BYTES);
+    }
+
+    /**
+     * Constructs a writer with the given buffer size. The buffer is allocated
+     * on first use.
+     *
+     * @param bufferBytes the size of the direct buffer, at least 64 bytes
+     */
+    public ChannelCSVWriter(int bufferBytes) {
+        if (bufferBytes < MIN_BUFFER_BYTES) {
+            throw new IllegalArgumentException("Buffer must be at least " + MIN_BUFFER_BYTES + " bytes");
+        }
+        this.bufferBytes = bufferBytes;
+    }
+
+    /**
+     * Writes products to a CSV file as they are produced by an iterator.
+     * Only one product is held at a time, so this can be fed from a lazy
+     * source of any size. Creates the output directory if it doesn't exist.
+     *
+     * @param outputPath the path to the output CSV file
+     * @param products the products to write, in output order
+     * @throws IOException if there's an error writing the file, or a field
+     *         contains an unpaired surrogate character
+     */
+    @Override
+    public void writeProducts(Path outputPath, Iterator<Product> products) throws IOException {
+        createParentDirectories(outputPath);
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(bufferBytes);
+        }
+
+        try (FileChannel out = FileChannel.open(outputPath,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel = out;
+            buffer.clear();
+            putBytes(HEADER);
+            putBytes(LINE_SEPARATOR);
+            while (products.hasNext()) {
+                putProduct(products.next());
+            }
+            flush();
+        } finally {
+            channel = null;
+        }
+    }
+
+    /**
+     * Encodes one row in the same layout as {@link Product#toString()}.
+     */
+    private void putProduct(Product product) throws IOException {
+        putField(product.getProductId());
+        putByte(',');
+        putField(product.getName());
+        putByte(',');
+        putPrice(product.getPrice());
+        putByte(',');
+        putField(product.getCategory());
+        putByte(',');
+        putField(product.getPriceRange());
+        putBytes(LINE_SEPARATOR);
+    }
+
+    /**
+     * Encodes a field, quoted like {@link Product#csvField(String)}.
+     */
+    private void putField(String value) throws IOException {
+        if (value == null) {
+            putBytes(NULL);
+        } else if (Product.needsQuotes(value)) {
+            putByte('"');
+            putUtf8(value, true);
+            putByte('"');
+        } else {
+            putUtf8(value, false);
+        }
+    }
+
+    /**
+     * Encodes a price the way {@link BigDecimal#toPlainString()} formats it.
+     * Non-negative scales with an unscaled value that fits in a long are
+     * written from their digits; anything else falls back to toPlainString.
+     */
+    private void putPrice(BigDecimal price) throws IOException {
+        int scale = price.scale();
+        long unscaled = shortUnscaledValue(price);
+        if (unscaled != NOT_SHORT) {
+            putUnscaled(unscaled, scale);
+            return;
+        }
+        BigInteger unscaledValue = price.unscaledValue();
+        if (scale < 0 || unscaledValue.bitLength() >= Long.SIZE) {
+            putUtf8(price.toPlainString(), false);
+            return;
+        }
+        putUnscaled(unscaledValue.longValue(), scale);
+    }
+
+    /**
+     * Returns the unscaled value of a short price without allocating.
+     *
+     * {@link BigDecimal#unscaledValue()} creates a BigInteger for most
+     * values, so prices of at most 15 digits with a scale from 0 to 22
+     * recover the unscaled value from {@link BigDecimal#doubleValue()}
+     * instead. Such a value is below 2^50, and the two correctly rounded
+     * steps (the value as a double, then its product with an exact power of
+     * ten) are off by less than 0.25, so rounding gives it exactly.
+     *
+     * @param price the price
+     * @return the unscaled value, or {@link #NOT_SHORT} if the price has more
+     *         digits or a scale outside that range
+     */
+    static long shortUnscaledValue(BigDecimal price) {
+        int scale = price.scale();
+        if (scale >= 0 && scale < DOUBLE_POWERS_OF_TEN.length && price.precision() <= MAX_EXACT_DOUBLE_DIGITS) {
+            return Math.round(price.doubleValue() * DOUBLE_POWERS_OF_TEN[scale]);
+        }
+        return NOT_SHORT;
+    }
+
+    /**
+     * Encodes {@code unscaled / 10^scale} in plain notation.
+     */
+    private void putUnscaled(long unscaled, int scale) throws IOException {
+        if (unscaled < 0) {
+            putByte('-');
+        }
+        // Digits of |unscaled|, least significant first
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + Math.abs(unscaled % 10));
+            unscaled /= 10;
+        } while (unscaled != 0);
+
+        if (count <= scale) {
+            putByte('0');
+            putByte('.');
+            for (int i = count; i < scale; i++) {
+                putByte('0');
+            }
+            scale = count;
+        } else {
+            for (int i = count - 1; i >= scale; i--) {
+                putByte(digits[i]);
+            }
+            if (scale > 0) {
+                putByte('.');
+            }
+        }
+        for (int i = scale - 1; i >= 0; i--) {
+            putByte(digits[i]);
+        }
+    }
+
+    /**
+     * Encodes a string as UTF-8, optionally doubling quote characters.
+     * Unpaired surrogates are rejected, as the UTF-8 encoder behind
+     * {@link CSVWriter} rejects them.
+     */
+    private void putUtf8(String value, boolean doubleQuotes) throws IOException {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (buffer.remaining() < 4) {
+                flush();
+            }
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c == '"' && doubleQuotes) {
+                    buffer.put((byte) '"');
+                }
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (!Character.isSurrogate(c)) {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else {
+                flush();
+                throw new MalformedInputException(1);
+            }
+        }
+    }
+
+    private void putByte(int b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.put((byte) b);
+    }
+
+    private void putBytes(byte[] bytes) throws IOException {
+        if (buffer.remaining() < bytes.length) {
+            flush();
+        }
+        buffer.put(bytes);
+    }
+
+    /**
+     * Writes out everything buffered so far.
+     */
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -1,11 +1,16 @@
 package org.howard.edu.lsp.assignment3;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadFactory;
+import java.util.stream.Stream;
 
 /**
  * Main ETL pipeline class that orchestrates the Extract-Transform-Load process.
@@ -16,6 +21,14 @@ public class ETLPipeline {
     
     private static final String INPUT_FILE = "data/products.csv";
     private static final String OUTPUT_FILE = "data/transformed_products.csv";
+    private static final String INDEX_FILE = "data/transformed_products.idx";
+    private static final String STREAMING_FLAG = "--streaming";
+    private static final String PARALLEL_FLAG = "--parallel";
+    private static final String MAPPED_FLAG = "--mapped";
+    private static final String PIPELINED_FLAG = "--pipelined";
+    private static final String PARALLEL_TRANSFORM_FLAG = "--parallel-transform";
+    private static final String INCREMENTAL_FLAG = "--incremental";
+    private static final String RULES_FLAG = "--rules";
     
     private final CSVReader csvReader;
     private final ProductTransformer productTransformer;
@@ -48,7 +61,18 @@ public class ETLPipeline {
      * Main method to run the ETL pipeline.
      * This method handles file validation, error reporting, and result display.
      *
-     * @param args command line arguments (not used)
+     * Pass {@code --streaming} to process the file one row at a time
+     * instead of loading it into memory, {@code --parallel} to parse
+     * the input on all available cores, {@code --mapped} to parse it
+     * from a memory-mapped file, {@code --pipelined} to run extract,
+     * transform and load concurrently, {@code --parallel-transform} to
+     * also transform on all available cores, or {@code --incremental} to
+     * transform only the rows that changed since the last incremental run.
+     * Any mode can be combined with {@code --rules <file>} to transform with
+     * the {@link TransformationRules} in that file, such as
+     * {@code data/transform_rules.properties}, instead of the standard rules.
+     *
+     * @param args command line arguments
      */
     public static void main(String[] args) {
         Path inputPath = Paths.get(INPUT_FILE);
@@ -60,14 +84,58 @@ public class ETLPipeline {
             return;
         }
 
+        String mode = "";
+        Path rulesPath = null;
+        for (int i = 0; i < args.length; i++) {
+            if (!RULES_FLAG.equals(args[i])) {
+                mode = args[i];
+            } else if (i + 1 < args.length) {
+                rulesPath = Paths.get(args[++i]);
+            } else {
+                System.err.println("ERROR: " + RULES_FLAG + " needs the path of a rules file");
+                return;
+            }
+        }
+
         try {
-            ETLPipeline pipeline = new ETLPipeline();
-            ETLResult result = pipeline.runPipeline(inputPath, outputPath);
+            ProductTransformer transformer;
+            try {
+                transformer = rulesPath == null
+                    ? new ProductTransformer()
+                    : new RuleBasedProductTransformer(TransformationRules.load(rulesPath));
+            } catch (IllegalArgumentException e) {
+                System.err.println("ERROR: Invalid rules file " + rulesPath + ": " + e.getMessage());
+                return;
+            }
+            CSVReader reader = MAPPED_FLAG.equals(mode) ? new MappedCSVReader() : new CSVReader();
+            ETLPipeline pipeline = new ETLPipeline(reader, transformer, new CSVWriter());
+            ETLResult result;
+            if (STREAMING_FLAG.equals(mode)) {
+                result = pipeline.runPipelineStreaming(inputPath, outputPath);
+            } else if (PARALLEL_FLAG.equals(mode)) {
+                result = pipeline.runPipelineParallel(inputPath, outputPath);
+            } else if (PIPELINED_FLAG.equals(mode)) {
+                result = pipeline.runPipelinePipelined(inputPath, outputPath);
+            } else if (INCREMENTAL_FLAG.equals(mode)) {
+                result = pipeline.runPipelineIncremental(inputPath, outputPath, Paths.get(INDEX_FILE));
+            } else if (PARALLEL_TRANSFORM_FLAG.equals(mode)) {
+                result = pipeline.runPipelinePipelined(inputPath, outputPath,
+                    Runtime.getRuntime().availableProcessors());
+            } else {
+                result = pipeline.runPipeline(inputPath, outputPath);
+            }
             
             System.out.println("Summary:");
             System.out.println("- Rows read: " + result.getRowsRead());
             System.out.println("- Rows transformed: " + result.getRowsTransformed());
             System.out.println("- Rows skipped: " + result.getRowsSkipped());
+            if (result instanceof IncrementalETLResult) {
+                IncrementalETLResult delta = (IncrementalETLResult) result;
+                System.out.println("- Rows inserted: " + delta.getInserted());
+                System.out.println("- Rows updated: " + delta.getUpdated());
+                System.out.println("- Rows unchanged: " + delta.getUnchanged());
+                System.out.println("- Rows deleted: " + delta.getDeleted());
+            }
             System.out.println("- Output written to: " + outputPath.toString());
         } catch (IOException e) {
             System.err.println("ERROR during ETL: " + e.getMessage());
@@ -86,7 +154,33 @@ public class ETLPipeline {
     public ETLResult runPipeline(Path inputPath, Path outputPath) throws IOException {
         // Extract phase
         List<Product> products = csvReader.readProducts(inputPath);
-        
+        return transformAndLoad(products, outputPath);
+    }
+
+    /**
+     * Runs the ETL pipeline with the extract phase parsed in parallel.
+     * Rows keep their input order, so the output file and counts are the same
+     * as {@link #runPipeline(Path, Path)}.
+     *
+     * @param inputPath the path to the input CSV file
+     * @param outputPath the path to the output CSV file
+     * @return an ETLResult containing process statistics
+     * @throws IOException if there's an error during file operations
+     */
+    public ETLResult runPipelineParallel(Path inputPath, Path outputPath) throws IOException {
+        List<Product> products = csvReader.readProductsParallel(inputPath);
+        return transformAndLoad(products, outputPath);
+    }
+
+    /**
+     * Runs the transform and load phases over already extracted products.
+     *
+     * @param products the products read from the input file
+     * @param outputPath the path to the output CSV file
+     * @return an ETLResult containing process statistics
+     * @throws IOException if there's an error writing the output
+     */
+    private ETLResult transformAndLoad(List<Product> products, Path outputPath) throws IOException {
         if (products.isEmpty()) {
             // No data to process, write header only
             csvWriter.writeHeaderOnly(outputPath);
@@ -112,4 +206,166 @@ public class ETLPipeline {
         
         return new ETLResult(rowsRead, transformedProducts.size(), skipped);
     }
+
+    /**
+     * Runs the ETL pipeline one record at a time.
+     * Each product flows from the reader through the transformer to the writer
+     * before the next one is read, so memory use stays constant regardless of
+     * the input size. Produces the same output file and counts as
+     * {@link #runPipeline(Path, Path)}.
+     *
+     * @param inputPath the path to the input CSV file
+     * @param outputPath the path to the output CSV file
+     * @return an ETLResult containing process statistics
+     * @throws IOException if there's an error during file operations
+     */
+    public ETLResult runPipelineStreaming(Path inputPath, Path outputPath) throws IOException {
+        try (Stream<Product> products = csvReader.streamProducts(inputPath)) {
+            TransformingIterator transformed =
+                new TransformingIterator(products.iterator(), productTransformer);
+            csvWriter.writeProducts(outputPath, transformed);
+            return new ETLResult(transformed.rowsRead, transformed.rowsTransformed, transformed.rowsSkipped);
+        } catch (UncheckedIOException e) {
+            // Stream-based reading wraps I/O failures; surface them as checked again
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Runs extract, transform and load as concurrent stages, each on its own
+     * daemon thread, in batches of 1024 products with up to 4 batches queued
+     * between stages.
+     *
+     * @param inputPath the path to the input CSV file
+     * @param outputPath the path to the output CSV file
+     * @return an ETLResult containing process statistics
+     * @throws IOException if there's an error during file operations
+     * @see #runPipelinePipelined(Path, Path, ThreadFactory, int, int, int)
+     */
+    public ETLResult runPipelinePipelined(Path inputPath, Path outputPath) throws IOException {
+        return runPipelinePipelined(inputPath, outputPath, 1);
+    }
+
+    /**
+     * Runs extract, transform and load as concurrent stages with the transform
+     * spread over several daemon worker threads, in batches of 1024 products.
+     *
+     * @param inputPath the path to the input CSV file
+     * @param outputPath the path to the output CSV file
+     * @param transformWorkers the number of threads that transform batches
+     * @return an ETLResult containing process statistics
+     * @throws IOException if there's an error during file operations
+     * @see #runPipelinePipelined(Path, Path, ThreadFactory, int, int, int)
+     */
+    public ETLResult runPipelinePipelined(Path inputPath, Path outputPath, int transformWorkers)
+            throws IOException {
+        return runPipelinePipelined(inputPath, outputPath, StagedPipeline.DEFAULT_THREAD_FACTORY,
+            transformWorkers, StagedPipeline.DEFAULT_BATCH_SIZE, StagedPipeline.DEFAULT_QUEUE_BATCHES);
+    }
+
+    /**
+     * Runs extract, transform and load as concurrent stages.
+     * The reader streams numbered batches of products to the transform
+     * workers, and the writer receives the transformed batches back in
+     * input order through a reorder buffer. Stages are connected by bounded
+     * buffers, so a stage that gets ahead blocks until the next one catches
+     * up, and memory use is bounded by the buffer sizes. Wall-clock time
+     * approaches that of the slowest stage rather than the sum of all three,
+     * and a transform-heavy run scales with the number of workers. If any
+     * stage fails, the others are interrupted and the first failure is thrown.
+     * Produces the same output file and counts as {@link #runPipeline(Path, Path)}.
+     *
+     * With more than one worker the transformer is called from several
+     * threads at once, so it must be thread-safe; the transformers in this
+     * package are. Any thread factory can supply the threads; on JDK 21 or
+     * later, {@code Thread.ofVirtual().factory()} runs them on virtual threads.
+     *
+     * @param inputPath the path to the input CSV file
+     * @param outputPath the path to the output CSV file
+     * @param threadFactory creates the reader, writer and worker threads
+     * @param transformWorkers the number of threads that transform batches
+     * @param batchSize the number of products handed between stages at a time
+     * @param queueBatches the number of batches queued ahead of the workers
+     * @return an ETLResult containing process statistics
+     * @throws IOException if there's an error during file operations, or the
+     *         calling thread is interrupted while waiting for the stages
+     */
+    public ETLResult runPipelinePipelined(Path inputPath, Path outputPath, ThreadFactory threadFactory,
+            int transformWorkers, int batchSize, int queueBatches) throws IOException {
+        return new StagedPipeline(csvReader, productTransformer, csvWriter, threadFactory,
+                transformWorkers, batchSize, queueBatches)
+            .run(inputPath, outputPath);
+    }
+
+    /**
+     * Runs the ETL pipeline incrementally, transforming only the rows that are
+     * new or changed since the previous incremental run.
+     * The index file records, per ProductID, a hash of the source row and the
+     * hash and position of its row in the output. Each run still reads and
+     * hashes the whole input, but rows whose source hash is unchanged are
+     * copied from the previous output instead of being transformed and
+     * formatted again. The output and index are replaced together only when
+     * the run succeeds. Without a usable index, every row is transformed.
+     * Produces the same output file and row counts as {@link #runPipeline(Path, Path)};
+     * rows are always written in the layout of {@link CSVWriter}.
+     *
+     * The index records the transformer's class and, for a
+     * {@link RuleBasedProductTransformer}, a hash of its rules; if either
+     * changes, the next run transforms every row again.
+     * Only the first of several rows sharing a ProductID is tracked; the
+     * others are transformed on every run and counted as inserted.
+     *
+     * @param inputPath the path to the input CSV file
+     * @param outputPath the path to the output CSV file
+     * @param indexPath the path to the index file, created if missing
+     * @return an IncrementalETLResult with the row statistics and the numbers
+     *         of rows inserted, updated, unchanged and deleted
+     * @throws IOException if there's an error during file operations
+     */
+    public IncrementalETLResult runPipelineIncremental(Path inputPath, Path outputPath, Path indexPath)
+            throws IOException {
+        return new IncrementalPipeline(csvReader, productTransformer)
+            .run(inputPath, outputPath, indexPath);
+    }
+
+    /**
+     * Iterator that applies the transformer to each product pulled from a source,
+     * dropping products that fail to transform and counting rows as it goes.
+     */
+    private static class TransformingIterator implements Iterator<Product> {
+        private final Iterator<Product> source;
+        private final ProductTransformer transformer;
+        private Product next;
+        private int rowsRead;
+        private int rowsTransformed;
+        private int rowsSkipped;
+
+        TransformingIterator(Iterator<Product> source, ProductTransformer transformer) {
+            this.source = source;
+            this.transformer = transformer;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && source.hasNext()) {
+                rowsRead++;
+                next = transformer.transform(source.next());
+                if (next == null) {
+                    rowsSkipped++;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Product next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Product product = next;
+            next = null;
+            rowsTransformed++;
+            return product;
+        }
+    }
 }
@@ -0,0 +1,143 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.math.BigDecimal;
+
+/**
+ * Product transformer that evaluates the price rules on whole cents held in a {@code long}.
+ * The discount, HALF_UP rounding, premium threshold and price range bands are
+ * all computed with integer arithmetic. Prices of up to 15 digits are
+ * converted to cents without allocating, so the only BigDecimal created per
+ * product is the final two-decimal price; longer prices go through
+ * {@link BigDecimal#unscaledValue()} first. Results are identical to
+ * {@link ProductTransformer}; prices whose digits don't fit in a {@code long}
+ * are handed to the BigDecimal rules instead.
+ *
+ * Only the transform step works in cents. Prices are still parsed into a
+ * BigDecimal by the reader, and the writers still format the BigDecimal
+ * price of the transformed product.
+ */
+public class FixedPointProductTransformer extends ProductTransformer {
+
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final long OVERFLOW = Long.MIN_VALUE;
+    private static final long[] POWERS_OF_TEN = new long[MAX_LONG_DIGITS + 1];
+
+    private static final long PREMIUM_THRESHOLD_CENTS = 500_00;
+    private static final long LOW_RANGE_MAX_CENTS = 10_00;
+    private static final long MEDIUM_RANGE_MAX_CENTS = 100_00;
+    private static final long HIGH_RANGE_MAX_CENTS = 500_00;
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /**
+     * Transforms a product according to the same business rules as
+     * {@link ProductTransformer#transform(Product)}, using fixed-point cents.
+     *
+     * @param product the product to transform
+     * @return the transformed product, or null if transformation fails
+     */
+    @Override
+    public Product transform(Product product) {
+        if (product == null || !product.isValid()) {
+            return null;
+        }
+
+        boolean electronics = ELECTRONICS_CATEGORY.equals(product.getCategory());
+        long cents = toCents(product.getPrice(), electronics);
+        if (cents == OVERFLOW) {
+            return super.transform(product);
+        }
+
+        // 1. Uppercase the name, 2. use the discounted and rounded price
+        Product transformedProduct = new Product(
+            product.getProductId(),
+            product.getName().toUpperCase(),
+            BigDecimal.valueOf(cents, 2),
+            product.getCategory()
+        );
+
+        // 3. Recategorize if needed
+        if (electronics && cents > PREMIUM_THRESHOLD_CENTS) {
+            transformedProduct.setCategory(PREMIUM_ELECTRONICS_CATEGORY);
+        }
+
+        // 4. Calculate price range
+        transformedProduct.setPriceRange(calculatePriceRange(cents));
+        return transformedProduct;
+    }
+
+    /**
+     * Converts a price to whole cents, applying the 10% Electronics discount and
+     * rounding HALF_UP to 2 decimals.
+     * A price with unscaled value u and scale s is worth u / 10^s, so its value in
+     * cents is u * 10^(2 - s), or u * 9 * 10^(1 - s) after the 0.90 discount.
+     *
+     * @param price the original price
+     * @param discounted whether the Electronics discount applies
+     * @return the rounded price in cents, or {@link #OVERFLOW} if it can't be
+     *         computed exactly in a {@code long}
+     */
+    private static long toCents(BigDecimal price, boolean discounted) {
+        if (price.precision() > MAX_LONG_DIGITS) {
+            return OVERFLOW;
+        }
+        long unscaled = ChannelCSVWriter.shortUnscaledValue(price);
+        if (unscaled == ChannelCSVWriter.NOT_SHORT) {
+            unscaled = price.unscaledValue().longValue();
+        }
+        long numerator = discounted ? unscaled * 9 : unscaled;
+        long exponent = (discounted ? 1L : 2L) - price.scale();
+
+        if (exponent >= 0) {
+            if (exponent > MAX_LONG_DIGITS) {
+                return numerator == 0 ? 0 : OVERFLOW;
+            }
+            try {
+                return Math.multiplyExact(numerator, POWERS_OF_TEN[(int) exponent]);
+            } catch (ArithmeticException e) {
+                return OVERFLOW;
+            }
+        }
+        if (-exponent > MAX_LONG_DIGITS) {
+            return OVERFLOW;
+        }
+        return divideHalfUp(numerator, POWERS_OF_TEN[(int) -exponent]);
+    }
+
+    /**
+     * Divides with HALF_UP rounding: ties round away from zero, as
+     * {@link java.math.RoundingMode#HALF_UP} does.
+     */
+    private static long divideHalfUp(long numerator, long divisor) {
+        long quotient = numerator / divisor;
+        long remainder = Math.abs(numerator % divisor);
+        if (remainder >= divisor - remainder) {
+            quotient += Long.signum(numerator);
+        }
+        return quotient;
+    }
+
+    /**
+     * Calculates the price range from a price in cents, with the same bands
+     * and boundaries as the BigDecimal rules.
+     *
+     * @param cents the final price in cents
+     * @return the price range category
+     */
+    private static String calculatePriceRange(long cents) {
+        if (cents >= 0 && cents <= LOW_RANGE_MAX_CENTS) {
+            return LOW_RANGE;
+        } else if (cents > LOW_RANGE_MAX_CENTS && cents <= MEDIUM_RANGE_MAX_CENTS) {
+            return MEDIUM_RANGE;
+        } else if (cents > MEDIUM_RANGE_MAX_CENTS && cents <= HIGH_RANGE_MAX_CENTS) {
+            return HIGH_RANGE;
+        } else {
+            return PREMIUM_RANGE;
+        }
+    }
+}
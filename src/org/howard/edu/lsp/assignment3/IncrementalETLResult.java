@@ -0,0 +1,82 @@
+package org.howard.edu.lsp.assignment3;
+
+/**
+ * Encapsulates the result of an incremental ETL pipeline execution.
+ * In addition to the row statistics of a full run, this class holds the
+ * number of products inserted, updated, unchanged and deleted since the
+ * previous run.
+ */
+public class IncrementalETLResult extends ETLResult {
+    private final int inserted;
+    private final int updated;
+    private final int unchanged;
+    private final int deleted;
+
+    /**
+     * Constructs an IncrementalETLResult with the specified statistics.
+     *
+     * @param rowsRead the number of rows read from input
+     * @param rowsTransformed the number of rows written to the output
+     * @param rowsSkipped the number of rows skipped due to errors
+     * @param inserted the number of rows whose ProductID was not in the previous run
+     * @param updated the number of rows whose source data changed since the previous run
+     * @param unchanged the number of rows carried forward from the previous run
+     * @param deleted the number of ProductIDs from the previous run missing from the input
+     */
+    public IncrementalETLResult(int rowsRead, int rowsTransformed, int rowsSkipped,
+            int inserted, int updated, int unchanged, int deleted) {
+        super(rowsRead, rowsTransformed, rowsSkipped);
+        this.inserted = inserted;
+        this.updated = updated;
+        this.unchanged = unchanged;
+        this.deleted = deleted;
+    }
+
+    /**
+     * Gets the number of rows whose ProductID was not in the previous run.
+     *
+     * @return the number of rows inserted
+     */
+    public int getInserted() {
+        return inserted;
+    }
+
+    /**
+     * Gets the number of rows whose source data changed since the previous run.
+     *
+     * @return the number of rows updated
+     */
+    public int getUpdated() {
+        return updated;
+    }
+
+    /**
+     * Gets the number of rows carried forward unchanged from the previous run.
+     *
+     * @return the number of rows unchanged
+     */
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    /**
+     * Gets the number of ProductIDs from the previous run that are no longer in the input.
+     *
+     * @return the number of rows deleted
+     */
+    public int getDeleted() {
+        return deleted;
+    }
+
+    /**
+     * Returns a string representation of the incremental ETL result.
+     *
+     * @return a formatted string with the ETL statistics
+     */
+    @Override
+    public String toString() {
+        return String.format("IncrementalETLResult{rowsRead=%d, rowsTransformed=%d, rowsSkipped=%d, "
+                + "inserted=%d, updated=%d, unchanged=%d, deleted=%d}",
+            getRowsRead(), getRowsTransformed(), getRowsSkipped(), inserted, updated, unchanged, deleted);
+    }
+}
@@ -0,0 +1,296 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Runs the ETL process incrementally against the {@link ProductIndex} of the
+ * previous run. Every input row is still read and hashed, but only rows that
+ * are new or whose source fields changed go through the transformer; an
+ * unchanged row is carried forward by copying its bytes from the previous
+ * output file, once they match the output hash the index recorded for them.
+ * Rows that fail that check, or that the previous output no longer has, are
+ * transformed again.
+ *
+ * Rows are written in the layout of {@link CSVWriter}, which every writer in
+ * this package shares, so the configured writer is not used. The output and
+ * the new index are written to temporary files and moved into place only
+ * once both are complete, so a failed run leaves the previous output and
+ * index untouched.
+ */
+class IncrementalPipeline {
+
+    private static final byte[] HEADER = (CSVWriter.CSV_HEADER + System.lineSeparator())
+        .getBytes(StandardCharsets.UTF_8);
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+    private static final int WRITE_BUFFER_BYTES = 256 << 10;
+    private static final int READ_WINDOW_BYTES = 1 << 20;
+
+    private final CSVReader csvReader;
+    private final ProductTransformer productTransformer;
+
+    IncrementalPipeline(CSVReader csvReader, ProductTransformer productTransformer) {
+        this.csvReader = csvReader;
+        this.productTransformer = productTransformer;
+    }
+
+    /**
+     * Runs the pipeline.
+     *
+     * @param inputPath the path to the input CSV file
+     * @param outputPath the path to the output CSV file, which may hold the previous output
+     * @param indexPath the path to the index of the previous run, replaced by this run's index
+     * @return the row statistics and the changes since the previous run
+     * @throws IOException if there's an error during file operations
+     */
+    IncrementalETLResult run(Path inputPath, Path outputPath, Path indexPath) throws IOException {
+        String fingerprint = productTransformer.fingerprint();
+        ProductIndex previous = ProductIndex.load(indexPath);
+        // Previous rows can only be reused if the same rules produced them and the output is intact
+        boolean reusable = previous.getFingerprint().equals(fingerprint)
+            && Files.isRegularFile(outputPath) && Files.size(outputPath) == previous.getOutputSize();
+
+        CSVWriter.createParentDirectories(outputPath);
+        Path directory = outputPath.toAbsolutePath().getParent();
+        Path tempOutput = Files.createTempFile(directory, outputPath.getFileName() + ".", ".tmp");
+        Path tempIndex = null;
+        try {
+            Path indexDirectory = indexPath.toAbsolutePath().getParent();
+            Files.createDirectories(indexDirectory);
+            tempIndex = Files.createTempFile(indexDirectory, indexPath.getFileName() + ".", ".tmp");
+
+            Delta delta = new Delta(previous, new ProductIndex(fingerprint, previous.size()));
+            try (Stream<Product> products = csvReader.streamProducts(inputPath);
+                    PreviousOutput previousOutput = reusable ? new PreviousOutput(outputPath) : null;
+                    RowOutput out = new RowOutput(tempOutput)) {
+                delta.write(products.iterator(), previousOutput, out);
+            } catch (UncheckedIOException e) {
+                // Stream-based reading wraps I/O failures; surface them as checked again
+                throw e.getCause();
+            }
+            delta.current.setOutputSize(delta.offset);
+            delta.current.save(tempIndex);
+
+            move(tempOutput, outputPath);
+            move(tempIndex, indexPath);
+            return new IncrementalETLResult(delta.rowsRead, delta.rowsTransformed, delta.rowsSkipped,
+                delta.inserted, delta.updated, delta.unchanged, previous.size());
+        } finally {
+            Files.deleteIfExists(tempOutput);
+            if (tempIndex != null) {
+                Files.deleteIfExists(tempIndex);
+            }
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * One pass over the input: compares each product with the previous index,
+     * copies unchanged rows and transforms the rest, while building the new
+     * index and counting rows as it goes. Entries left in the previous index
+     * at the end belong to deleted products.
+     */
+    private class Delta {
+        private final ProductIndex previous;
+        private final ProductIndex current;
+        // Reports unpaired surrogates like the writer behind CSVWriter does
+        private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+        private long offset = HEADER.length;
+        private int rowsRead;
+        private int rowsTransformed;
+        private int rowsSkipped;
+        private int inserted;
+        private int updated;
+        private int unchanged;
+
+        Delta(ProductIndex previous, ProductIndex current) {
+            this.previous = previous;
+            this.current = current;
+        }
+
+        void write(Iterator<Product> source, PreviousOutput previousOutput, RowOutput out) throws IOException {
+            out.write(HEADER);
+            while (source.hasNext()) {
+                Product product = source.next();
+                rowsRead++;
+                String productId = product.getProductId();
+                long sourceHash = ProductIndex.hashSource(product);
+                ProductIndex.Entry old = previous.remove(productId);
+
+                if (old == null) {
+                    inserted++;
+                } else if (old.sourceHash != sourceHash) {
+                    updated++;
+                } else {
+                    unchanged++;
+                    if (old.length == ProductIndex.SKIPPED && previousOutput != null) {
+                        skip(productId, sourceHash);
+                        continue;
+                    }
+                    if (previousOutput != null && previousOutput.copyRow(old, out)) {
+                        add(productId, new ProductIndex.Entry(sourceHash, old.outputHash, offset, old.length));
+                        continue;
+                    }
+                }
+
+                Product transformed = productTransformer.transform(product);
+                if (transformed == null) {
+                    skip(productId, sourceHash);
+                    continue;
+                }
+                ByteBuffer row = encoder.encode(CharBuffer.wrap(transformed.toString()));
+                int length = row.remaining() + LINE_SEPARATOR.length;
+                long outputHash = ProductIndex.hash(LINE_SEPARATOR, 0, LINE_SEPARATOR.length,
+                    ProductIndex.hash(row.array(), row.arrayOffset() + row.position(), row.remaining()));
+                out.write(row.array(), row.arrayOffset() + row.position(), row.remaining());
+                out.write(LINE_SEPARATOR);
+                add(productId, new ProductIndex.Entry(sourceHash, outputHash, offset, length));
+            }
+        }
+
+        /**
+         * Indexes a row just written at the current offset.
+         */
+        private void add(String productId, ProductIndex.Entry entry) {
+            current.add(productId, entry);
+            offset += entry.length;
+            rowsTransformed++;
+        }
+
+        private void skip(String productId, long sourceHash) {
+            rowsSkipped++;
+            current.add(productId, new ProductIndex.Entry(sourceHash, 0, 0, ProductIndex.SKIPPED));
+        }
+    }
+
+    /**
+     * Sequential writes to the new output file through one reused buffer.
+     */
+    private static class RowOutput implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+
+        RowOutput(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        void write(byte[] bytes) throws IOException {
+            write(bytes, 0, bytes.length);
+        }
+
+        void write(byte[] bytes, int offset, int length) throws IOException {
+            if (length > buffer.remaining()) {
+                flush();
+                if (length > buffer.capacity()) {
+                    drain(ByteBuffer.wrap(bytes, offset, length));
+                    return;
+                }
+            }
+            buffer.put(bytes, offset, length);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            drain(buffer);
+            buffer.clear();
+        }
+
+        private void drain(ByteBuffer bytes) throws IOException {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+
+        /**
+         * Writes out what is buffered and closes the file.
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Random access to the previous output file through a read-ahead window,
+     * so rows that are still in file order are read sequentially.
+     */
+    private static class PreviousOutput implements AutoCloseable {
+        private final FileChannel channel;
+        private final long size;
+        private ByteBuffer window = ByteBuffer.allocate(READ_WINDOW_BYTES);
+        private long windowStart;
+        private int windowLength;
+
+        PreviousOutput(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            size = channel.size();
+        }
+
+        /**
+         * Copies a row of the previous output if its bytes still hash to the
+         * recorded output hash.
+         *
+         * @return false if the row lies outside the file or doesn't match
+         */
+        boolean copyRow(ProductIndex.Entry entry, RowOutput out) throws IOException {
+            long offset = entry.offset;
+            int length = entry.length;
+            if (offset < 0 || length < 0 || offset + length > size) {
+                return false;
+            }
+            if (offset < windowStart || offset + length > windowStart + windowLength) {
+                fill(offset, length);
+            }
+            int start = (int) (offset - windowStart);
+            if (ProductIndex.hash(window.array(), start, length) != entry.outputHash) {
+                return false;
+            }
+            out.write(window.array(), start, length);
+            return true;
+        }
+
+        /**
+         * Reads the window from an offset, growing it first if a single row
+         * is larger than the window.
+         */
+        private void fill(long offset, int length) throws IOException {
+            if (length > window.capacity()) {
+                window = ByteBuffer.allocate(length);
+            }
+            window.clear();
+            while (window.hasRemaining() && channel.read(window, offset + window.position()) > 0) {
+                // Keep reading until the window is filled or the file ends
+            }
+            windowStart = offset;
+            windowLength = window.position();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
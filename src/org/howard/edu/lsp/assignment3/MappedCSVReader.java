@@ -0,0 +1,328 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * CSV reader that parses products directly from a memory-mapped file.
+ * Instead of building a String per line and splitting it, this reader scans
+ * the mapped bytes for delimiters, trims fields in place, parses the price
+ * straight from its digits, and only creates Strings for the ID, name and
+ * category. Columns past the fourth are never decoded, and repeated category
+ * values share a single String instance. Only lines that contain a quote
+ * byte are decoded whole and parsed as RFC 4180 records.
+ *
+ * Produces the same products as {@link CSVReader#readProducts(Path)} for
+ * well-formed UTF-8 input.
+ */
+public class MappedCSVReader extends CSVReader {
+
+    private static final long MAX_WINDOW_BYTES = 256L << 20;
+    private static final int MAX_FAST_PRICE_DIGITS = 18;
+    private static final int MAX_CACHED_CATEGORIES = 32;
+
+    /**
+     * Reads a CSV file through a memory map and converts it to a list of Product objects.
+     * Skips the header row and malformed rows.
+     *
+     * @param inputPath the path to the input CSV file
+     * @return a list of valid Product objects
+     * @throws IOException if there's an error reading the file
+     */
+    @Override
+    public List<Product> readProducts(Path inputPath) throws IOException {
+        List<Product> products = new ArrayList<>();
+        forEachProduct(inputPath, products::add);
+        return products;
+    }
+
+    /**
+     * Parses a CSV file through a memory map and hands each valid product to an action
+     * as soon as its row is parsed. Skips the header row and malformed rows.
+     * The file is mapped in windows of at most 256 MB, so files larger than
+     * the 2 GB limit of a single mapping are supported.
+     *
+     * @param inputPath the path to the input CSV file
+     * @param action the action to apply to each product, in file order
+     * @throws IOException if there's an error reading the file, or a single
+     *         row is longer than the mapping window
+     */
+    public void forEachProduct(Path inputPath, Consumer<Product> action) throws IOException {
+        try (FileChannel channel = FileChannel.open(inputPath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            LineScanner scanner = new LineScanner(action);
+            long position = 0;
+
+            while (position < size) {
+                long windowBytes = Math.min(MAX_WINDOW_BYTES, size - position);
+                boolean lastWindow = position + windowBytes == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, windowBytes);
+
+                int consumed = scanner.scan(window, lastWindow);
+                if (consumed == 0) {
+                    throw new IOException("Row at offset " + position + " exceeds the mapping window");
+                }
+                position += consumed;
+            }
+        }
+    }
+
+    /**
+     * Per-read parsing state: the header flag, a reusable byte scratch buffer for
+     * decoding Strings, the category cache, and the parser for quoted records.
+     */
+    private static class LineScanner {
+        private final Consumer<Product> action;
+        private final byte[][] categoryBytes = new byte[MAX_CACHED_CATEGORIES][];
+        private final String[] categoryValues = new String[MAX_CACHED_CATEGORIES];
+        private final int[] commas = new int[3];
+        private final CSVRecordParser quotedParser = new CSVRecordParser();
+        private int cachedCategories;
+        private byte[] scratch = new byte[256];
+        private boolean headerSkipped;
+
+        LineScanner(Consumer<Product> action) {
+            this.action = action;
+        }
+
+        /**
+         * Parses every complete record in the window. Lines end at \n, \r or \r\n,
+         * the same terminators {@link java.io.BufferedReader#readLine()} accepts.
+         * Lines without a quote byte are parsed in place; the others are decoded
+         * and fed to a {@link CSVRecordParser}, so a record with a quoted line
+         * break spans several lines. A record cut off by the end of a non-final
+         * window is left for the next window, which will be mapped starting at
+         * that record's first line.
+         *
+         * @return the number of bytes consumed from the start of the window
+         */
+        int scan(MappedByteBuffer window, boolean lastWindow) {
+            int limit = window.limit();
+            int lineStart = 0;
+            int recordStart = 0;
+
+            while (lineStart < limit) {
+                int i = lineStart;
+                boolean quoted = false;
+                for (byte b; i < limit && (b = window.get(i)) != '\n' && b != '\r'; i++) {
+                    quoted |= b == '"';
+                }
+
+                int nextLineStart;
+                if (i == limit) {
+                    if (!lastWindow) {
+                        break;
+                    }
+                    nextLineStart = limit;
+                } else if (window.get(i) == '\r') {
+                    if (i + 1 == limit && !lastWindow) {
+                        break; // Can't tell yet whether this is \r\n
+                    }
+                    nextLineStart = i + 1 < limit && window.get(i + 1) == '\n' ? i + 2 : i + 1;
+                } else {
+                    nextLineStart = i + 1;
+                }
+
+                if (quoted || quotedParser.isPending()) {
+                    if (!quotedParser.isPending()) {
+                        recordStart = lineStart;
+                    }
+                    if (quotedParser.feed(decode(window, lineStart, i))) {
+                        String[] fields = quotedParser.takeFields();
+                        accept(fields == null ? null : CSVReader.toProduct(fields));
+                    }
+                } else if (headerSkipped) {
+                    accept(parseLine(window, lineStart, i));
+                } else {
+                    headerSkipped = true;
+                }
+                lineStart = nextLineStart;
+            }
+
+            if (quotedParser.isPending()) {
+                // Reparse the open record from its first line in the next window,
+                // or drop it if its quoted field is never closed
+                quotedParser.reset();
+                return lastWindow ? lineStart : recordStart;
+            }
+            return lineStart;
+        }
+
+        private void accept(Product product) {
+            if (!headerSkipped) {
+                headerSkipped = true;
+            } else if (product != null) {
+                action.accept(product);
+            }
+        }
+
+        /**
+         * Parses one line of bytes into a Product.
+         * Returns null if the line is malformed or invalid.
+         */
+        private Product parseLine(MappedByteBuffer buf, int start, int end) {
+            // Locate the three commas that delimit the four required columns
+            int found = 0;
+            for (int i = start; i < end && found < commas.length; i++) {
+                if (buf.get(i) == ',') {
+                    commas[found++] = i;
+                }
+            }
+            if (found < commas.length) {
+                return null; // Skip malformed rows
+            }
+            int categoryEnd = end;
+            for (int i = commas[2] + 1; i < end; i++) {
+                if (buf.get(i) == ',') {
+                    categoryEnd = i;
+                    break;
+                }
+            }
+
+            long id = trimmed(buf, start, commas[0]);
+            long name = trimmed(buf, commas[0] + 1, commas[1]);
+            long price = trimmed(buf, commas[1] + 1, commas[2]);
+            long category = trimmed(buf, commas[2] + 1, categoryEnd);
+
+            // Validate required fields
+            if (isEmpty(id) || isEmpty(name) || isEmpty(price) || isEmpty(category)) {
+                return null;
+            }
+
+            BigDecimal parsedPrice = parsePrice(buf, from(price), to(price));
+            if (parsedPrice == null) {
+                return null; // Skip malformed price
+            }
+
+            return new Product(
+                decode(buf, from(id), to(id)),
+                decode(buf, from(name), to(name)),
+                parsedPrice,
+                category(buf, from(category), to(category)));
+        }
+
+        /**
+         * Parses a price from its bytes. Plain decimals of up to 18 digits are
+         * built directly from an unscaled long; anything else (exponents, very
+         * long values, non-ASCII digits) goes through {@link BigDecimal#BigDecimal(String)}
+         * so the accepted syntax stays exactly the same.
+         *
+         * @return the price, or null if it is not a valid number
+         */
+        private BigDecimal parsePrice(MappedByteBuffer buf, int from, int to) {
+            int i = from;
+            boolean negative = false;
+            byte first = buf.get(i);
+            if (first == '-' || first == '+') {
+                negative = first == '-';
+                i++;
+            }
+
+            long unscaled = 0;
+            int digits = 0;
+            int scale = 0;
+            boolean seenPoint = false;
+            for (; i < to; i++) {
+                byte b = buf.get(i);
+                if (b >= '0' && b <= '9') {
+                    unscaled = unscaled * 10 + (b - '0');
+                    digits++;
+                    if (seenPoint) {
+                        scale++;
+                    }
+                } else if (b == '.' && !seenPoint) {
+                    seenPoint = true;
+                } else {
+                    break;
+                }
+            }
+
+            if (i == to && digits > 0 && digits <= MAX_FAST_PRICE_DIGITS) {
+                return BigDecimal.valueOf(negative ? -unscaled : unscaled, scale);
+            }
+            try {
+                return new BigDecimal(decode(buf, from, to));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Returns the category String for the given bytes, reusing a previously
+         * decoded instance when the same category has been seen before.
+         */
+        private String category(MappedByteBuffer buf, int from, int to) {
+            int length = to - from;
+            for (int c = 0; c < cachedCategories; c++) {
+                byte[] candidate = categoryBytes[c];
+                if (candidate.length == length && bytesEqual(buf, from, candidate)) {
+                    return categoryValues[c];
+                }
+            }
+
+            String value = decode(buf, from, to);
+            if (cachedCategories < MAX_CACHED_CATEGORIES) {
+                byte[] key = new byte[length];
+                buf.get(from, key);
+                categoryBytes[cachedCategories] = key;
+                categoryValues[cachedCategories] = value;
+                cachedCategories++;
+            }
+            return value;
+        }
+
+        private static boolean bytesEqual(MappedByteBuffer buf, int from, byte[] candidate) {
+            for (int i = 0; i < candidate.length; i++) {
+                if (buf.get(from + i) != candidate[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private String decode(MappedByteBuffer buf, int from, int to) {
+            int length = to - from;
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            buf.get(from, scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Trims the range like {@link String#trim()}: every byte up to 0x20 is
+         * whitespace, and such bytes never occur inside multi-byte UTF-8 sequences.
+         *
+         * @return the trimmed range packed as (from << 32 | to)
+         */
+        private static long trimmed(MappedByteBuffer buf, int from, int to) {
+            while (from < to && (buf.get(from) & 0xFF) <= ' ') {
+                from++;
+            }
+            while (to > from && (buf.get(to - 1) & 0xFF) <= ' ') {
+                to--;
+            }
+            return ((long) from << 32) | to;
+        }
+
+        private static int from(long range) {
+            return (int) (range >>> 32);
+        }
+
+        private static int to(long range) {
+            return (int) range;
+        }
+
+        private static boolean isEmpty(long range) {
+            return from(range) == to(range);
+        }
+    }
+}
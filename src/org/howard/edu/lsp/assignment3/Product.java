@@ -124,12 +124,52 @@ public class Product {
 
     /**
      * Returns a string representation of the product in CSV format.
+     * Fields are quoted as described in {@link #csvField(String)}.
      *
      * @return the product as a CSV string
      */
     @Override
     public String toString() {
         return String.format("%s,%s,%s,%s,%s", 
-            productId, name, price.toPlainString(), category, priceRange);
+            csvField(productId), csvField(name), price.toPlainString(), csvField(category), csvField(priceRange));
+    }
+
+    /**
+     * Formats a value as a CSV field. Values containing a comma, quote or line
+     * break, or with leading or trailing whitespace that the reader would trim,
+     * are wrapped in quotes with embedded quotes doubled (RFC 4180); all other
+     * values, including null as {@code "null"}, are written unchanged.
+     *
+     * @param value the field value
+     * @return the field as it appears in a CSV row
+     */
+    static String csvField(String value) {
+        if (value == null) {
+            return "null";
+        }
+        if (!needsQuotes(value)) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Checks whether a value must be quoted to be read back unchanged.
+     *
+     * @param value the field value
+     * @return true if {@link #csvField(String)} wraps the value in quotes
+     */
+    static boolean needsQuotes(String value) {
+        int length = value.length();
+        if (length > 0 && (value.charAt(0) <= ' ' || value.charAt(length - 1) <= ' ')) {
+            return true;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
     }
 }
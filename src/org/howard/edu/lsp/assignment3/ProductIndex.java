@@ -0,0 +1,317 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Index of the rows written by an incremental ETL run, persisted in a compact
+ * binary file next to the output. For each ProductID it records a hash of the
+ * source row, and the hash, byte offset and length of the row written to the
+ * output file (or that the row was skipped). A later run compares source
+ * hashes to find changed rows, and uses the offsets to carry unchanged rows
+ * forward from the previous output after checking their output hashes.
+ *
+ * Hashes are 64-bit FNV-1a. The file starts with a header holding a format
+ * version, the fingerprint of the transformer (its class name, plus a hash
+ * of its rules for configurable transformers) and the size of the output
+ * file the index describes. The file is read and written through a large
+ * buffer in big-endian order.
+ */
+class ProductIndex {
+
+    /** Output length recorded for rows that the transformer skipped. */
+    static final int SKIPPED = -1;
+
+    private static final int MAGIC = 0x45544C49; // "ETLI"
+    private static final int VERSION = 2;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final int MAX_STRING_BYTES = 1 << 20;
+    private static final int ENTRY_BYTES = 3 * Long.BYTES + Integer.BYTES;
+    private static final int BUFFER_BYTES = 2 * MAX_STRING_BYTES;
+
+    private final Map<String, Entry> entries;
+    private final String fingerprint;
+    private long outputSize;
+
+    /**
+     * Creates an empty index.
+     *
+     * @param fingerprint the fingerprint of the transformer that produced the rows
+     * @param expectedSize the number of entries expected
+     */
+    ProductIndex(String fingerprint, int expectedSize) {
+        this(fingerprint, 0, new HashMap<>(capacityFor(expectedSize)));
+    }
+
+    private ProductIndex(String fingerprint, long outputSize, Map<String, Entry> entries) {
+        this.fingerprint = fingerprint;
+        this.outputSize = outputSize;
+        this.entries = entries;
+    }
+
+    /**
+     * Loads an index. A missing file, or one that is truncated or not in
+     * this format, yields an empty index, so the run falls back to
+     * transforming every row.
+     *
+     * @param indexPath the index file
+     * @return the index
+     * @throws IOException if the file exists but can't be read
+     */
+    static ProductIndex load(Path indexPath) throws IOException {
+        if (!Files.isRegularFile(indexPath)) {
+            return new ProductIndex("", 0);
+        }
+        try (FileChannel channel = FileChannel.open(indexPath, StandardOpenOption.READ)) {
+            Input in = new Input(channel);
+            ByteBuffer buffer = in.require(2 * Integer.BYTES);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return new ProductIndex("", 0);
+            }
+            String fingerprint = in.readString();
+            buffer = in.require(Long.BYTES + Integer.BYTES);
+            long outputSize = buffer.getLong();
+            int count = buffer.getInt();
+            if (count < 0) {
+                return new ProductIndex("", 0);
+            }
+            // The count is only trusted for presizing as far as the file could hold it
+            int expected = (int) Math.min(count, channel.size() / (Integer.BYTES + ENTRY_BYTES));
+            Map<String, Entry> entries = new HashMap<>(capacityFor(expected));
+            for (int i = 0; i < count; i++) {
+                String productId = in.readString();
+                buffer = in.require(ENTRY_BYTES);
+                entries.put(productId, new Entry(buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getInt()));
+            }
+            return new ProductIndex(fingerprint, outputSize, entries);
+        } catch (EOFException e) {
+            return new ProductIndex("", 0);
+        }
+    }
+
+    /**
+     * Writes the index to a file, replacing its contents.
+     *
+     * @param indexPath the index file
+     * @throws IOException if the file can't be written
+     */
+    void save(Path indexPath) throws IOException {
+        try (FileChannel channel = FileChannel.open(indexPath,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Output out = new Output(channel);
+            out.require(2 * Integer.BYTES).putInt(MAGIC).putInt(VERSION);
+            out.writeString(fingerprint);
+            out.require(Long.BYTES + Integer.BYTES).putLong(outputSize).putInt(entries.size());
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                Entry entry = e.getValue();
+                out.writeString(e.getKey());
+                out.require(ENTRY_BYTES)
+                    .putLong(entry.sourceHash)
+                    .putLong(entry.outputHash)
+                    .putLong(entry.offset)
+                    .putInt(entry.length);
+            }
+            out.flush();
+        }
+    }
+
+    private static int capacityFor(int expectedSize) {
+        return Math.max(16, (int) (expectedSize / 0.75f) + 1);
+    }
+
+    String getFingerprint() {
+        return fingerprint;
+    }
+
+    long getOutputSize() {
+        return outputSize;
+    }
+
+    void setOutputSize(long outputSize) {
+        this.outputSize = outputSize;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes and returns the entry for a ProductID, or null if there is none.
+     */
+    Entry remove(String productId) {
+        return entries.remove(productId);
+    }
+
+    /**
+     * Records an entry unless the ProductID already has one, so the first
+     * of several rows with the same ID is the one that is tracked.
+     */
+    void add(String productId, Entry entry) {
+        entries.putIfAbsent(productId, entry);
+    }
+
+    /**
+     * Hashes the source fields of a product: ID, name, price (with its
+     * scale) and category. Each field is prefixed with its length so that
+     * moving characters between fields changes the hash.
+     *
+     * @param product the product as read from the input
+     * @return the 64-bit FNV-1a hash
+     */
+    static long hashSource(Product product) {
+        long hash = FNV_OFFSET_BASIS;
+        hash = hashField(hash, product.getProductId());
+        hash = hashField(hash, product.getName());
+        hash = hashField(hash, product.getPrice().toString());
+        return hashField(hash, product.getCategory());
+    }
+
+    /**
+     * Hashes a range of bytes.
+     *
+     * @return the 64-bit FNV-1a hash
+     */
+    static long hash(byte[] bytes, int offset, int length) {
+        return hash(bytes, offset, length, FNV_OFFSET_BASIS);
+    }
+
+    /**
+     * Continues a hash over a further range of bytes, so that a row can be
+     * hashed in pieces.
+     *
+     * @param hash the hash of the bytes before the range
+     * @return the 64-bit FNV-1a hash
+     */
+    static long hash(byte[] bytes, int offset, int length, long hash) {
+        for (int i = offset; i < offset + length; i++) {
+            hash = (hash ^ (bytes[i] & 0xFF)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    private static long hashField(long hash, String value) {
+        int length = value.length();
+        hash = hashChar(hash, (char) (length >>> 16));
+        hash = hashChar(hash, (char) length);
+        for (int i = 0; i < length; i++) {
+            hash = hashChar(hash, value.charAt(i));
+        }
+        return hash;
+    }
+
+    private static long hashChar(long hash, char c) {
+        hash = (hash ^ (c & 0xFF)) * FNV_PRIME;
+        return (hash ^ (c >>> 8)) * FNV_PRIME;
+    }
+
+    /** Reads the index file through a buffer that is refilled as it runs out. */
+    private static final class Input {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+
+        Input(FileChannel channel) {
+            this.channel = channel;
+            buffer.flip();
+        }
+
+        /**
+         * @return the buffer, with at least the given number of bytes remaining
+         * @throws EOFException if the file ends first
+         */
+        ByteBuffer require(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                buffer.compact();
+                while (buffer.hasRemaining() && channel.read(buffer) > 0) {
+                    // Keep reading until the buffer is filled or the file ends
+                }
+                buffer.flip();
+                if (buffer.remaining() < bytes) {
+                    throw new EOFException();
+                }
+            }
+            return buffer;
+        }
+
+        String readString() throws IOException {
+            int length = require(Integer.BYTES).getInt();
+            if (length < 0 || length > MAX_STRING_BYTES) {
+                throw new EOFException("Corrupt string length " + length); // Treated as a truncated index
+            }
+            require(length);
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
+    }
+
+    /** Writes the index file through a buffer that is drained as it fills. */
+    private static final class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * @return the buffer, with room for at least the given number of bytes
+         */
+        ByteBuffer require(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+            return buffer;
+        }
+
+        void writeString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            require(Integer.BYTES).putInt(bytes.length);
+            if (bytes.length > buffer.capacity()) {
+                // Longer than a loadable ID; written anyway, and a later load treats the index as corrupt
+                flush();
+                write(ByteBuffer.wrap(bytes));
+            } else {
+                require(bytes.length).put(bytes);
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            write(buffer);
+            buffer.clear();
+        }
+
+        private void write(ByteBuffer bytes) throws IOException {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+        }
+    }
+
+    /** What the index knows about one ProductID. */
+    static final class Entry {
+        final long sourceHash;
+        final long outputHash;
+        /** Offset of the output row, including its line separator. */
+        final long offset;
+        /** Length of the output row in bytes, or {@link #SKIPPED}. */
+        final int length;
+
+        Entry(long sourceHash, long outputHash, long offset, int length) {
+            this.sourceHash = sourceHash;
+            this.outputHash = outputHash;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -12,8 +12,16 @@ public class ProductTransformer {
     
     private static final BigDecimal DISCOUNT_RATE = new BigDecimal("0.90");
     private static final BigDecimal PREMIUM_THRESHOLD = new BigDecimal("500.00");
-    private static final String ELECTRONICS_CATEGORY = "Electronics";
-    private static final String PREMIUM_ELECTRONICS_CATEGORY = "Premium Electronics";
+    private static final BigDecimal LOW_RANGE_MIN = new BigDecimal("0.00");
+    private static final BigDecimal LOW_RANGE_MAX = new BigDecimal("10.00");
+    private static final BigDecimal MEDIUM_RANGE_MAX = new BigDecimal("100.00");
+    private static final BigDecimal HIGH_RANGE_MAX = new BigDecimal("500.00");
+    static final String ELECTRONICS_CATEGORY = "Electronics";
+    static final String PREMIUM_ELECTRONICS_CATEGORY = "Premium Electronics";
+    static final String LOW_RANGE = "Low";
+    static final String MEDIUM_RANGE = "Medium";
+    static final String HIGH_RANGE = "High";
+    static final String PREMIUM_RANGE = "Premium";
 
     /**
      * Transforms a product according to the business rules:
@@ -58,6 +66,17 @@ public class ProductTransformer {
         }
     }
 
+    /**
+     * Identifies the output this transformer produces, for the index of the
+     * incremental pipeline. Transformers whose output depends on their
+     * configuration include it, so that changing it invalidates the index.
+     *
+     * @return the class name of this transformer
+     */
+    String fingerprint() {
+        return getClass().getName();
+    }
+
     /**
      * Applies the 10% discount for Electronics category and rounds to 2 decimal places.
      *
@@ -104,17 +123,17 @@ public class ProductTransformer {
      * @return the price range category
      */
     private String calculatePriceRange(BigDecimal finalPrice) {
-        if (finalPrice.compareTo(new BigDecimal("0.00")) >= 0 && 
-            finalPrice.compareTo(new BigDecimal("10.00")) <= 0) {
-            return "Low";
-        } else if (finalPrice.compareTo(new BigDecimal("10.00")) > 0 && 
-                   finalPrice.compareTo(new BigDecimal("100.00")) <= 0) {
-            return "Medium";
-        } else if (finalPrice.compareTo(new BigDecimal("100.00")) > 0 && 
-                   finalPrice.compareTo(new BigDecimal("500.00")) <= 0) {
-            return "High";
+        if (finalPrice.compareTo(LOW_RANGE_MIN) >= 0 && 
+            finalPrice.compareTo(LOW_RANGE_MAX) <= 0) {
+            return LOW_RANGE;
+        } else if (finalPrice.compareTo(LOW_RANGE_MAX) > 0 && 
+                   finalPrice.compareTo(MEDIUM_RANGE_MAX) <= 0) {
+            return MEDIUM_RANGE;
+        } else if (finalPrice.compareTo(MEDIUM_RANGE_MAX) > 0 && 
+                   finalPrice.compareTo(HIGH_RANGE_MAX) <= 0) {
+            return HIGH_RANGE;
         } else {
-            return "Premium";
+            return PREMIUM_RANGE;
         }
     }
 }
@@ -0,0 +1,173 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Product transformer driven by a {@link TransformationRules} definition.
+ * The rules are compiled once, when the transformer is constructed, into a
+ * short fixed array of steps. Each step is a lambda with its constants, lookup
+ * tables and branches already resolved, so transforming a row never looks at
+ * the rule definition again. With {@link TransformationRules#defaults()} the
+ * output is identical to {@link ProductTransformer}.
+ */
+public class RuleBasedProductTransformer extends ProductTransformer {
+
+    private final ProductRule[] steps;
+    private final String fingerprint;
+
+    /**
+     * Constructs a transformer that applies the default rules.
+     */
+    public RuleBasedProductTransformer() {
+        this(TransformationRules.defaults());
+    }
+
+    /**
+     * Constructs a transformer by compiling the given rules.
+     *
+     * @param rules the rules to apply
+     */
+    public RuleBasedProductTransformer(TransformationRules rules) {
+        List<ProductRule> compiled = new ArrayList<>();
+        if (rules.isUppercaseName()) {
+            compiled.add(product -> product.setName(product.getName().toUpperCase()));
+        }
+        compiled.add(compilePricing(rules));
+        for (TransformationRules.Recategorization rule : rules.getRecategorizations()) {
+            compiled.add(compileRecategorization(rule));
+        }
+        compiled.add(compilePriceBands(rules));
+        this.steps = compiled.toArray(new ProductRule[0]);
+        this.fingerprint = super.fingerprint() + "#" + Long.toHexString(rules.fingerprint());
+    }
+
+    /**
+     * @return the class name and a hash of the compiled rules
+     */
+    @Override
+    String fingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Transforms a product by running the compiled rule steps in order.
+     *
+     * @param product the product to transform
+     * @return the transformed product, or null if transformation fails
+     */
+    @Override
+    public Product transform(Product product) {
+        if (product == null || !product.isValid()) {
+            return null;
+        }
+
+        try {
+            // Create a copy to avoid modifying the original
+            Product transformedProduct = new Product(
+                product.getProductId(),
+                product.getName(),
+                product.getPrice(),
+                product.getCategory()
+            );
+            for (ProductRule step : steps) {
+                step.apply(transformedProduct);
+            }
+            return transformedProduct;
+        } catch (Exception e) {
+            return null; // Skip malformed products
+        }
+    }
+
+    /**
+     * Compiles the discounts and rounding into one step. The common cases of no
+     * discount or a single discounted category avoid the map lookup entirely.
+     */
+    private static ProductRule compilePricing(TransformationRules rules) {
+        int scale = rules.getPriceScale();
+        RoundingMode roundingMode = rules.getRoundingMode();
+        List<TransformationRules.Discount> discounts = rules.getDiscounts();
+
+        if (discounts.isEmpty()) {
+            return product -> product.setPrice(product.getPrice().setScale(scale, roundingMode));
+        }
+        if (discounts.size() == 1) {
+            String category = discounts.get(0).getCategory();
+            BigDecimal rate = discounts.get(0).getRate();
+            return product -> {
+                BigDecimal price = product.getPrice();
+                if (category.equals(product.getCategory())) {
+                    price = price.multiply(rate);
+                }
+                product.setPrice(price.setScale(scale, roundingMode));
+            };
+        }
+
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (TransformationRules.Discount discount : discounts) {
+            rates.putIfAbsent(discount.getCategory(), discount.getRate());
+        }
+        return product -> {
+            BigDecimal price = product.getPrice();
+            BigDecimal rate = rates.get(product.getCategory());
+            if (rate != null) {
+                price = price.multiply(rate);
+            }
+            product.setPrice(price.setScale(scale, roundingMode));
+        };
+    }
+
+    private static ProductRule compileRecategorization(TransformationRules.Recategorization rule) {
+        String category = rule.getCategory();
+        BigDecimal threshold = rule.getThreshold();
+        String targetCategory = rule.getTargetCategory();
+        return product -> {
+            if (category.equals(product.getCategory()) && product.getPrice().compareTo(threshold) > 0) {
+                product.setCategory(targetCategory);
+            }
+        };
+    }
+
+    /**
+     * Compiles the price bands into parallel arrays of bounds and labels that the
+     * step scans in order. Prices below the floor get the last label.
+     */
+    private static ProductRule compilePriceBands(TransformationRules rules) {
+        List<TransformationRules.PriceBand> bands = rules.getBands();
+        BigDecimal floor = rules.getBandFloor();
+        int bounded = bands.size() - 1;
+        BigDecimal[] upperBounds = new BigDecimal[bounded];
+        String[] labels = new String[bounded];
+        for (int i = 0; i < bounded; i++) {
+            upperBounds[i] = bands.get(i).getUpperBound();
+            labels[i] = bands.get(i).getLabel();
+        }
+        String lastLabel = bands.get(bounded).getLabel();
+
+        return product -> {
+            BigDecimal price = product.getPrice();
+            String label = lastLabel;
+            if (price.compareTo(floor) >= 0) {
+                for (int i = 0; i < bounded; i++) {
+                    if (price.compareTo(upperBounds[i]) <= 0) {
+                        label = labels[i];
+                        break;
+                    }
+                }
+            }
+            product.setPriceRange(label);
+        };
+    }
+
+    /**
+     * One compiled transformation step, applied in place to the product copy.
+     */
+    @FunctionalInterface
+    private interface ProductRule {
+        void apply(Product product);
+    }
+}
@@ -0,0 +1,329 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * One pipelined run of the ETL process. Extract, transform and load run
+ * concurrently and hand batches of products to the next stage through
+ * bounded buffers, so reading, transforming and writing overlap and a fast
+ * stage blocks instead of running ahead of a slow one.
+ *
+ * The reader numbers its batches in input order. One or more transform
+ * workers take batches from a shared queue, and a reorder buffer hands the
+ * transformed batches to the writer strictly by sequence number, so the
+ * output keeps the input order however the workers interleave. The end of
+ * the input is marked by a sentinel batch that carries the batch count.
+ *
+ * The first stage to fail records its exception and interrupts the others,
+ * which then stop at their next queue operation; {@link #run(Path, Path)}
+ * rethrows that first exception once every stage has stopped.
+ * An instance runs once.
+ */
+class StagedPipeline {
+
+    static final int DEFAULT_BATCH_SIZE = 1024;
+    static final int DEFAULT_QUEUE_BATCHES = 4;
+    static final ThreadFactory DEFAULT_THREAD_FACTORY = task -> {
+        Thread thread = new Thread(task, "etl-pipeline-stage");
+        thread.setDaemon(true);
+        return thread;
+    };
+
+    /** Marks the end of the transformed batches; compared by identity. */
+    private static final List<Product> END = new ArrayList<>(0);
+
+    private final CSVReader csvReader;
+    private final ProductTransformer productTransformer;
+    private final CSVWriter csvWriter;
+    private final ThreadFactory threadFactory;
+    private final int transformWorkers;
+    private final int batchSize;
+    private final BlockingQueue<Batch> extracted;
+    private final ReorderBuffer transformed;
+    private final List<Thread> threads = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    // Read after the stages are joined
+    private final AtomicInteger rowsRead = new AtomicInteger();
+    private final AtomicInteger rowsSkipped = new AtomicInteger();
+    private int rowsTransformed; // Written by the load stage only
+
+    /**
+     * @param csvReader the extract stage
+     * @param productTransformer the transform stage
+     * @param csvWriter the load stage
+     * @param threadFactory creates the reader, writer and transform worker threads
+     * @param transformWorkers the number of transform worker threads
+     * @param batchSize the number of products per batch
+     * @param queueBatches the number of batches queued for the workers before
+     *        the reader blocks, and finished batches buffered ahead of the writer
+     *        per worker
+     */
+    StagedPipeline(CSVReader csvReader, ProductTransformer productTransformer, CSVWriter csvWriter,
+            ThreadFactory threadFactory, int transformWorkers, int batchSize, int queueBatches) {
+        if (transformWorkers < 1 || batchSize < 1 || queueBatches < 1) {
+            throw new IllegalArgumentException("Workers, batch size and queue capacity must be positive");
+        }
+        this.csvReader = csvReader;
+        this.productTransformer = productTransformer;
+        this.csvWriter = csvWriter;
+        this.threadFactory = threadFactory;
+        this.transformWorkers = transformWorkers;
+        this.batchSize = batchSize;
+        this.extracted = new ArrayBlockingQueue<>(queueBatches);
+        this.transformed = new ReorderBuffer(queueBatches + transformWorkers);
+    }
+
+    /**
+     * Runs the stages and waits for all of them to finish.
+     *
+     * @param inputPath the path to the input CSV file
+     * @param outputPath the path to the output CSV file
+     * @return an ETLResult containing process statistics
+     * @throws IOException if a stage fails with an I/O error, or the
+     *         calling thread is interrupted while waiting
+     */
+    ETLResult run(Path inputPath, Path outputPath) throws IOException {
+        if (!threads.isEmpty()) {
+            throw new IllegalStateException("Pipeline already run");
+        }
+        try {
+            addStage(() -> extract(inputPath));
+            for (int i = 0; i < transformWorkers; i++) {
+                addStage(this::transform);
+            }
+            addStage(() -> load(outputPath));
+            for (Thread thread : threads) {
+                thread.start();
+            }
+        } catch (RuntimeException | Error e) {
+            fail(e); // Stops the stages that did start
+        }
+
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                fail(e);
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for ETL stages");
+            }
+        }
+        rethrowFailure();
+        return new ETLResult(rowsRead.get(), rowsTransformed, rowsSkipped.get());
+    }
+
+    private void extract(Path inputPath) throws IOException, InterruptedException {
+        try (Stream<Product> products = csvReader.streamProducts(inputPath)) {
+            Iterator<Product> source = products.iterator();
+            long sequence = 0;
+            List<Product> batch = new ArrayList<>(batchSize);
+            while (source.hasNext()) {
+                batch.add(source.next());
+                if (batch.size() == batchSize) {
+                    extracted.put(new Batch(sequence++, batch));
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                extracted.put(new Batch(sequence++, batch));
+            }
+            extracted.put(new Batch(sequence, null));
+        }
+    }
+
+    /**
+     * Transforms batches in place, dropping products that fail to transform,
+     * until the end sentinel arrives. The sentinel is put back for the other
+     * workers, and its batch count tells the reorder buffer where output ends.
+     */
+    private void transform() throws InterruptedException {
+        Batch next;
+        while ((next = extracted.take()).products != null) {
+            List<Product> batch = next.products;
+            int kept = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                Product product = productTransformer.transform(batch.get(i));
+                if (product != null) {
+                    batch.set(kept++, product);
+                }
+            }
+            rowsRead.addAndGet(batch.size());
+            rowsSkipped.addAndGet(batch.size() - kept);
+            batch.subList(kept, batch.size()).clear();
+            transformed.put(next.sequence, batch);
+        }
+        extracted.put(next);
+        transformed.finish(next.sequence);
+    }
+
+    private void load(Path outputPath) throws IOException {
+        csvWriter.writeProducts(outputPath, new BatchIterator());
+    }
+
+    private void addStage(Stage stage) {
+        threads.add(threadFactory.newThread(() -> {
+            try {
+                stage.run();
+            } catch (Throwable t) {
+                fail(t);
+            }
+        }));
+    }
+
+    /**
+     * Records the first failure and interrupts every stage so they stop.
+     * Later failures, typically the interrupts themselves, are ignored.
+     */
+    private void fail(Throwable t) {
+        if (failure.compareAndSet(null, t)) {
+            for (Thread thread : threads) {
+                if (thread != Thread.currentThread()) {
+                    thread.interrupt();
+                }
+            }
+        }
+    }
+
+    private void rethrowFailure() throws IOException {
+        Throwable t = failure.get();
+        if (t == null) {
+            return;
+        }
+        if (t instanceof IOException) {
+            throw (IOException) t;
+        }
+        if (t instanceof UncheckedIOException) {
+            // Stream-based reading wraps I/O failures; surface them as checked again
+            throw ((UncheckedIOException) t).getCause();
+        }
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        if (t instanceof InterruptedException) {
+            throw new InterruptedIOException("ETL stage interrupted");
+        }
+        throw new IOException("ETL stage failed", t);
+    }
+
+    /** The body of one stage thread. */
+    private interface Stage {
+        void run() throws Exception;
+    }
+
+    /** A batch of extracted products and its position in the input. */
+    private static final class Batch {
+        final long sequence;
+        /** The products, or null for the end sentinel, whose sequence is the batch count. */
+        final List<Product> products;
+
+        Batch(long sequence, List<Product> products) {
+            this.sequence = sequence;
+            this.products = products;
+        }
+    }
+
+    /**
+     * Collects transformed batches from the workers and releases them in
+     * sequence order. A worker whose batch is too far ahead of the next one
+     * due out waits, which bounds the batches held here; the worker holding
+     * the batch due out never waits, so the buffer always makes progress.
+     */
+    private static final class ReorderBuffer {
+        private final List<Product>[] slots;
+        /** The sequence number of the next batch to release. */
+        private long next;
+        /** The number of batches, once known. */
+        private long end = Long.MAX_VALUE;
+
+        @SuppressWarnings("unchecked")
+        ReorderBuffer(int capacity) {
+            slots = (List<Product>[]) new List<?>[capacity];
+        }
+
+        synchronized void put(long sequence, List<Product> batch) throws InterruptedException {
+            while (sequence >= next + slots.length) {
+                wait();
+            }
+            slots[(int) (sequence % slots.length)] = batch;
+            notifyAll();
+        }
+
+        synchronized void finish(long batches) {
+            end = batches;
+            notifyAll();
+        }
+
+        /**
+         * Waits for the next batch in sequence.
+         *
+         * @return the batch, or {@link #END} once every batch has been released
+         */
+        synchronized List<Product> take() throws InterruptedException {
+            while (next < end) {
+                int slot = (int) (next % slots.length);
+                List<Product> batch = slots[slot];
+                if (batch != null) {
+                    slots[slot] = null;
+                    next++;
+                    notifyAll();
+                    return batch;
+                }
+                wait();
+            }
+            return END;
+        }
+    }
+
+    /**
+     * Feeds the writer the products of each transformed batch, counting them,
+     * until the end sentinel arrives.
+     */
+    private class BatchIterator implements Iterator<Product> {
+        private List<Product> batch = List.of();
+        private int index;
+
+        @Override
+        public boolean hasNext() {
+            while (index == batch.size()) {
+                if (batch == END) {
+                    return false;
+                }
+                try {
+                    batch = transformed.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("ETL pipeline cancelled");
+                }
+                index = 0;
+            }
+            return true;
+        }
+
+        @Override
+        public Product next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            rowsTransformed++;
+            return batch.get(index++);
+        }
+    }
+}
@@ -0,0 +1,421 @@
+package org.howard.edu.lsp.assignment3;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Describes a set of product transformation rules, such as one tenant's
+ * discounts, recategorizations and price ranges.
+ * Rules are plain data; {@link RuleBasedProductTransformer} compiles them
+ * into the per-row transformation.
+ *
+ * Rules are loaded from a properties file:
+ * <pre>
+ * name.uppercase=true
+ * price.scale=2
+ * discount.1.category=Electronics
+ * discount.1.rate=0.90
+ * recategorize.1.category=Electronics
+ * recategorize.1.above=500.00
+ * recategorize.1.to=Premium Electronics
+ * bands.floor=0.00
+ * bands=Low:10.00,Medium:100.00,High:500.00,Premium
+ * </pre>
+ * Numbered entries are read from 1 upwards until the first missing number,
+ * and any other {@code discount.*} or {@code recategorize.*} key is rejected;
+ * set {@code discount.none=true} or {@code recategorize.none=true} to turn a
+ * section off entirely.
+ * Each band covers prices up to and including its bound. The last band has no
+ * bound and also takes any price below {@code bands.floor}.
+ * Omitted keys take the values shown above, which are the
+ * {@link #defaults() default rules}.
+ */
+public class TransformationRules {
+
+    private static final String DEFAULT_BANDS = "Low:10.00,Medium:100.00,High:500.00,Premium";
+
+    private final boolean uppercaseName;
+    private final int priceScale;
+    private final List<Discount> discounts;
+    private final List<Recategorization> recategorizations;
+    private final BigDecimal bandFloor;
+    private final List<PriceBand> bands;
+
+    /**
+     * Constructs a rule set.
+     *
+     * @param uppercaseName whether names are converted to upper case
+     * @param priceScale the number of decimals prices are rounded to (HALF_UP)
+     * @param discounts the discounts, applied before rounding
+     * @param recategorizations the recategorizations, checked in order after rounding
+     * @param bandFloor the lowest price that falls into the first band
+     * @param bands the price bands in ascending order; the last one must have no bound
+     * @throws IllegalArgumentException if the bands are empty or out of order
+     */
+    public TransformationRules(boolean uppercaseName, int priceScale, List<Discount> discounts,
+                               List<Recategorization> recategorizations, BigDecimal bandFloor,
+                               List<PriceBand> bands) {
+        if (bands.isEmpty() || bands.get(bands.size() - 1).getUpperBound() != null) {
+            throw new IllegalArgumentException("The last price band must have no upper bound");
+        }
+        BigDecimal previous = bandFloor;
+        for (PriceBand band : bands.subList(0, bands.size() - 1)) {
+            if (band.getUpperBound() == null || band.getUpperBound().compareTo(previous) < 0) {
+                throw new IllegalArgumentException("Price band bounds must be ascending: " + band.getLabel());
+            }
+            previous = band.getUpperBound();
+        }
+        this.uppercaseName = uppercaseName;
+        this.priceScale = priceScale;
+        this.discounts = Collections.unmodifiableList(new ArrayList<>(discounts));
+        this.recategorizations = Collections.unmodifiableList(new ArrayList<>(recategorizations));
+        this.bandFloor = bandFloor;
+        this.bands = Collections.unmodifiableList(new ArrayList<>(bands));
+    }
+
+    /**
+     * Returns the standard rules implemented by {@link ProductTransformer}.
+     *
+     * @return the default rule set
+     */
+    public static TransformationRules defaults() {
+        return fromProperties(new Properties());
+    }
+
+    /**
+     * Loads a rule set from a properties file.
+     *
+     * @param path the rules file
+     * @return the loaded rule set
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if a rule value is invalid
+     */
+    public static TransformationRules load(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        return fromProperties(properties);
+    }
+
+    /**
+     * Builds a rule set from properties in the format described on this class.
+     *
+     * @param properties the rule properties
+     * @return the rule set
+     * @throws IllegalArgumentException if a rule value is invalid or a numbered
+     *         section has a key that isn't part of an entry
+     */
+    public static TransformationRules fromProperties(Properties properties) {
+        boolean uppercaseName = Boolean.parseBoolean(properties.getProperty("name.uppercase", "true"));
+        int priceScale = Integer.parseInt(properties.getProperty("price.scale", "2").trim());
+
+        List<Discount> discounts = new ArrayList<>();
+        if (!properties.containsKey("discount.1.category") && !isDisabled(properties, "discount")) {
+            discounts.add(new Discount("Electronics", new BigDecimal("0.90")));
+        }
+        int discountCount = 0;
+        for (int i = 1; properties.containsKey("discount." + i + ".category"); i++) {
+            discounts.add(new Discount(
+                required(properties, "discount." + i + ".category"),
+                decimal(properties, "discount." + i + ".rate")));
+            discountCount = i;
+        }
+
+        List<Recategorization> recategorizations = new ArrayList<>();
+        if (!properties.containsKey("recategorize.1.category") && !isDisabled(properties, "recategorize")) {
+            recategorizations.add(new Recategorization(
+                "Electronics", new BigDecimal("500.00"), "Premium Electronics"));
+        }
+        int recategorizationCount = 0;
+        for (int i = 1; properties.containsKey("recategorize." + i + ".category"); i++) {
+            recategorizations.add(new Recategorization(
+                required(properties, "recategorize." + i + ".category"),
+                decimal(properties, "recategorize." + i + ".above"),
+                required(properties, "recategorize." + i + ".to")));
+            recategorizationCount = i;
+        }
+        rejectUnreadKeys(properties, "discount", discountCount, "category", "rate");
+        rejectUnreadKeys(properties, "recategorize", recategorizationCount, "category", "above", "to");
+
+        BigDecimal bandFloor = new BigDecimal(properties.getProperty("bands.floor", "0.00").trim());
+        List<PriceBand> bands = new ArrayList<>();
+        for (String band : properties.getProperty("bands", DEFAULT_BANDS).split(",")) {
+            String[] parts = band.split(":", 2);
+            BigDecimal upperBound = parts.length == 2 ? parseDecimal("bands", parts[1]) : null;
+            bands.add(new PriceBand(parts[0].trim(), upperBound));
+        }
+
+        return new TransformationRules(uppercaseName, priceScale, discounts,
+            recategorizations, bandFloor, bands);
+    }
+
+    /**
+     * Rejects keys of a numbered section that the scan did not read, such as
+     * entries after a gap in the numbering or an entry without a category,
+     * so that a mistyped file fails instead of silently using the defaults.
+     *
+     * @param properties the rule properties
+     * @param section the section prefix, e.g. {@code discount}
+     * @param count the number of entries read, numbered 1 to count
+     * @param fields the fields an entry may have
+     * @throws IllegalArgumentException if the section has a key that was not read
+     */
+    private static void rejectUnreadKeys(Properties properties, String section, int count, String... fields) {
+        String prefix = section + ".";
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.startsWith(prefix) || key.equals(prefix + "none")) {
+                continue;
+            }
+            String rest = key.substring(prefix.length());
+            int dot = rest.indexOf('.');
+            int number = dot > 0 ? parseEntryNumber(rest.substring(0, dot)) : -1;
+            if (number < 1 || number > count || !Arrays.asList(fields).contains(rest.substring(dot + 1))) {
+                throw new IllegalArgumentException("Unread rule property: " + key
+                    + " (" + section + " entries are numbered from 1 without gaps and need a category)");
+            }
+        }
+    }
+
+    /**
+     * Parses an entry number as the scan spells it, so keys like
+     * {@code discount.01.rate} aren't taken for entry 1.
+     */
+    private static int parseEntryNumber(String number) {
+        try {
+            int parsed = Integer.parseInt(number);
+            return Integer.toString(parsed).equals(number) ? parsed : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static boolean isDisabled(Properties properties, String section) {
+        return Boolean.parseBoolean(properties.getProperty(section + ".none", "false").trim());
+    }
+
+    private static String required(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException("Missing rule property: " + key);
+        }
+        return value.trim();
+    }
+
+    private static BigDecimal decimal(Properties properties, String key) {
+        return parseDecimal(key, required(properties, key));
+    }
+
+    private static BigDecimal parseDecimal(String key, String value) {
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for " + key + ": " + value, e);
+        }
+    }
+
+    /**
+     * @return whether names are converted to upper case
+     */
+    public boolean isUppercaseName() {
+        return uppercaseName;
+    }
+
+    /**
+     * @return the number of decimals prices are rounded to
+     */
+    public int getPriceScale() {
+        return priceScale;
+    }
+
+    /**
+     * @return the rounding mode used for prices
+     */
+    public RoundingMode getRoundingMode() {
+        return RoundingMode.HALF_UP;
+    }
+
+    /**
+     * @return the discounts, in the order they were defined
+     */
+    public List<Discount> getDiscounts() {
+        return discounts;
+    }
+
+    /**
+     * @return the recategorizations, in the order they are checked
+     */
+    public List<Recategorization> getRecategorizations() {
+        return recategorizations;
+    }
+
+    /**
+     * @return the lowest price that falls into the first band
+     */
+    public BigDecimal getBandFloor() {
+        return bandFloor;
+    }
+
+    /**
+     * @return the price bands in ascending order
+     */
+    public List<PriceBand> getBands() {
+        return bands;
+    }
+
+    /**
+     * Hashes the rule values, for the index of the incremental pipeline.
+     * Numbers are normalized without trailing zeros, since rules that differ
+     * only in those transform every product the same way.
+     *
+     * @return the 64-bit hash of the normalized rules
+     */
+    long fingerprint() {
+        StringBuilder canonical = new StringBuilder();
+        appendField(canonical, Boolean.toString(uppercaseName));
+        appendField(canonical, Integer.toString(priceScale));
+        appendField(canonical, getRoundingMode().name());
+        appendField(canonical, Integer.toString(discounts.size()));
+        for (Discount discount : discounts) {
+            appendField(canonical, discount.getCategory());
+            appendField(canonical, normalize(discount.getRate()));
+        }
+        appendField(canonical, Integer.toString(recategorizations.size()));
+        for (Recategorization rule : recategorizations) {
+            appendField(canonical, rule.getCategory());
+            appendField(canonical, normalize(rule.getThreshold()));
+            appendField(canonical, rule.getTargetCategory());
+        }
+        appendField(canonical, normalize(bandFloor));
+        appendField(canonical, Integer.toString(bands.size()));
+        for (PriceBand band : bands) {
+            appendField(canonical, band.getLabel());
+            appendField(canonical, band.getUpperBound() == null ? "" : normalize(band.getUpperBound()));
+        }
+        byte[] bytes = canonical.toString().getBytes(StandardCharsets.UTF_8);
+        return ProductIndex.hash(bytes, 0, bytes.length);
+    }
+
+    /** Appends a length-prefixed value, so that no two rule sets share a canonical form. */
+    private static void appendField(StringBuilder canonical, String value) {
+        canonical.append(value.length()).append(':').append(value);
+    }
+
+    private static String normalize(BigDecimal value) {
+        return value.stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * A price multiplier applied to every product in a category.
+     */
+    public static class Discount {
+        private final String category;
+        private final BigDecimal rate;
+
+        /**
+         * @param category the category the discount applies to
+         * @param rate the multiplier applied to the price, e.g. 0.90 for 10% off
+         */
+        public Discount(String category, BigDecimal rate) {
+            this.category = category;
+            this.rate = rate;
+        }
+
+        /**
+         * @return the category this rule matches
+         */
+        public String getCategory() {
+            return category;
+        }
+
+        /**
+         * @return the price multiplier
+         */
+        public BigDecimal getRate() {
+            return rate;
+        }
+    }
+
+    /**
+     * Moves products of a category to another category when their final price
+     * is above a threshold.
+     */
+    public static class Recategorization {
+        private final String category;
+        private final BigDecimal threshold;
+        private final String targetCategory;
+
+        /**
+         * @param category the category to match
+         * @param threshold the price that must be exceeded
+         * @param targetCategory the new category
+         */
+        public Recategorization(String category, BigDecimal threshold, String targetCategory) {
+            this.category = category;
+            this.threshold = threshold;
+            this.targetCategory = targetCategory;
+        }
+
+        /**
+         * @return the category this rule matches
+         */
+        public String getCategory() {
+            return category;
+        }
+
+        /**
+         * @return the price that must be exceeded
+         */
+        public BigDecimal getThreshold() {
+            return threshold;
+        }
+
+        /**
+         * @return the new category
+         */
+        public String getTargetCategory() {
+            return targetCategory;
+        }
+    }
+
+    /**
+     * A labelled price range that ends at an inclusive upper bound.
+     */
+    public static class PriceBand {
+        private final String label;
+        private final BigDecimal upperBound;
+
+        /**
+         * @param label the price range label
+         * @param upperBound the highest price in the band, or null for the last band
+         */
+        public PriceBand(String label, BigDecimal upperBound) {
+            this.label = label;
+            this.upperBound = upperBound;
+        }
+
+        /**
+         * @return the price range label
+         */
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * @return the inclusive upper bound, or null for the last band
+         */
+        public BigDecimal getUpperBound() {
+            return upperBound;
+        }
+    }
+}
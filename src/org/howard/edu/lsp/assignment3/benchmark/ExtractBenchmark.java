@@ -0,0 +1,59 @@
+package org.howard.edu.lsp.assignment3.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.howard.edu.lsp.assignment3.CSVReader;
+import org.howard.edu.lsp.assignment3.MappedCSVReader;
+import org.howard.edu.lsp.assignment3.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the extract stage: every way of reading a whole product file.
+ * One operation is one pass over the file, so rows per second is the
+ * reported throughput multiplied by {@code rows}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExtractBenchmark {
+
+    private final CSVReader reader = new CSVReader();
+    private final MappedCSVReader mappedReader = new MappedCSVReader();
+
+    @Benchmark
+    public List<Product> readProducts(ProductFileState file) throws IOException {
+        return reader.readProducts(file.inputPath);
+    }
+
+    @Benchmark
+    public void streamProducts(ProductFileState file, Blackhole blackhole) throws IOException {
+        try (Stream<Product> products = reader.streamProducts(file.inputPath)) {
+            products.forEach(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public List<Product> readProductsParallel(ProductFileState file) throws IOException {
+        return reader.readProductsParallel(file.inputPath);
+    }
+
+    @Benchmark
+    public void mappedForEach(ProductFileState file, Blackhole blackhole) throws IOException {
+        mappedReader.forEachProduct(file.inputPath, blackhole::consume);
+    }
+}
@@ -0,0 +1,58 @@
+package org.howard.edu.lsp.assignment3.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.howard.edu.lsp.assignment3.CSVReader;
+import org.howard.edu.lsp.assignment3.ChannelCSVWriter;
+import org.howard.edu.lsp.assignment3.CSVWriter;
+import org.howard.edu.lsp.assignment3.Product;
+import org.howard.edu.lsp.assignment3.ProductTransformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the load stage: writing an already transformed file's worth of
+ * products. The products are read and transformed once per trial, outside the
+ * measurement.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoadBenchmark {
+
+    private final CSVWriter writer = new CSVWriter();
+    private final ChannelCSVWriter channelWriter = new ChannelCSVWriter();
+    private List<Product> transformed;
+
+    @Setup(Level.Trial)
+    public void setUp(ProductFileState file) throws IOException {
+        ProductTransformer transformer = new ProductTransformer();
+        transformed = new CSVReader().readProducts(file.inputPath);
+        transformed.replaceAll(transformer::transform);
+        transformed.removeIf(product -> product == null);
+    }
+
+    @Benchmark
+    public void writeProducts(ProductFileState file) throws IOException {
+        writer.writeProducts(file.outputPath, transformed);
+    }
+
+    @Benchmark
+    public void writeProductsChannel(ProductFileState file) throws IOException {
+        channelWriter.writeProducts(file.outputPath, transformed);
+    }
+}
@@ -0,0 +1,59 @@
+package org.howard.edu.lsp.assignment3.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.howard.edu.lsp.assignment3.CSVWriter;
+import org.howard.edu.lsp.assignment3.ETLPipeline;
+import org.howard.edu.lsp.assignment3.ETLResult;
+import org.howard.edu.lsp.assignment3.MappedCSVReader;
+import org.howard.edu.lsp.assignment3.ProductTransformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the whole pipeline end to end, from input file to output file,
+ * in each of its execution modes.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PipelineBenchmark {
+
+    @Param({"batch", "streaming", "parallel", "mapped", "pipelined", "parallelTransform"})
+    public String mode;
+
+    private final ETLPipeline pipeline = new ETLPipeline();
+    private final ETLPipeline mappedPipeline =
+        new ETLPipeline(new MappedCSVReader(), new ProductTransformer(), new CSVWriter());
+
+    @Benchmark
+    public ETLResult runPipeline(ProductFileState file) throws IOException {
+        switch (mode) {
+            case "streaming":
+                return pipeline.runPipelineStreaming(file.inputPath, file.outputPath);
+            case "parallel":
+                return pipeline.runPipelineParallel(file.inputPath, file.outputPath);
+            case "pipelined":
+                return pipeline.runPipelinePipelined(file.inputPath, file.outputPath);
+            case "parallelTransform":
+                return pipeline.runPipelinePipelined(file.inputPath, file.outputPath,
+                    Runtime.getRuntime().availableProcessors());
+            case "mapped":
+                return mappedPipeline.runPipeline(file.inputPath, file.outputPath);
+            default:
+                return pipeline.runPipeline(file.inputPath, file.outputPath);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.howard.edu.lsp.assignment3.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic product CSV files for benchmarking the ETL pipeline.
+ * Files have the same header and column layout as {@code data/products.csv}.
+ * The share of Electronics rows (which take the discount and recategorization
+ * paths) and the share of malformed rows (which the reader skips) are configurable,
+ * and output is deterministic for a given seed.
+ */
+public class ProductFileGenerator {
+
+    private static final String HEADER = "ProductID,Name,Price,Category";
+    private static final String[] OTHER_CATEGORIES = {"Education", "Stationery", "Home", "Toys", "Grocery"};
+    private static final String[] NAMES = {"Book", "Laptop", "Notebook", "Headphones", "Pencil", "Smartphone",
+        "Monitor", "Stapler", "Camera", "Backpack"};
+    private static final String[] MALFORMED_ROWS = {"", "missing,columns", "99,Widget,not-a-price,Toys", ",,,"};
+
+    private final double electronicsShare;
+    private final double malformedShare;
+    private final long seed;
+
+    /**
+     * Constructs a generator.
+     *
+     * @param electronicsShare the fraction of valid rows in the Electronics category (0 to 1)
+     * @param malformedShare the fraction of rows that are malformed (0 to 1)
+     * @param seed the random seed
+     */
+    public ProductFileGenerator(double electronicsShare, double malformedShare, long seed) {
+        if (electronicsShare < 0 || electronicsShare > 1 || malformedShare < 0 || malformedShare > 1) {
+            throw new IllegalArgumentException("Shares must be between 0 and 1");
+        }
+        this.electronicsShare = electronicsShare;
+        this.malformedShare = malformedShare;
+        this.seed = seed;
+    }
+
+    /**
+     * Writes a product file with a header and the given number of data rows.
+     * Prices range from 0.01 to 2000.00 so that every price band is exercised.
+     *
+     * @param outputPath the file to write
+     * @param rows the number of data rows, including malformed ones
+     * @throws IOException if the file can't be written
+     */
+    public void generate(Path outputPath, long rows) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        try (BufferedWriter writer = Files.newBufferedWriter(outputPath, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            StringBuilder line = new StringBuilder(64);
+            for (long id = 1; id <= rows; id++) {
+                line.setLength(0);
+                if (random.nextDouble() < malformedShare) {
+                    line.append(MALFORMED_ROWS[random.nextInt(MALFORMED_ROWS.length)]);
+                } else {
+                    long cents = 1 + random.nextLong(200_000);
+                    String category = random.nextDouble() < electronicsShare
+                        ? "Electronics"
+                        : OTHER_CATEGORIES[random.nextInt(OTHER_CATEGORIES.length)];
+                    line.append(id).append(',')
+                        .append(NAMES[random.nextInt(NAMES.length)]).append(' ').append(id % 1000).append(',')
+                        .append(cents / 100).append('.').append(cents % 100 < 10 ? "0" : "").append(cents % 100)
+                        .append(',').append(category);
+                }
+                writer.append(line);
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Generates a file from the command line.
+     * Usage: {@code ProductFileGenerator <output> <rows> [electronicsShare] [malformedShare] [seed]}
+     *
+     * @param args command line arguments
+     * @throws IOException if the file can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ProductFileGenerator <output> <rows> [electronicsShare] [malformedShare] [seed]");
+            return;
+        }
+        double electronicsShare = args.length > 2 ? Double.parseDouble(args[2]) : 0.3;
+        double malformedShare = args.length > 3 ? Double.parseDouble(args[3]) : 0.0;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42L;
+
+        new ProductFileGenerator(electronicsShare, malformedShare, seed)
+            .generate(Paths.get(args[0]), Long.parseLong(args[1]));
+    }
+}
@@ -0,0 +1,53 @@
+package org.howard.edu.lsp.assignment3.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * JMH state holding a generated product file shared by the file-based benchmarks.
+ * The file is generated once per trial in a temporary directory, together with
+ * a path the benchmarks can use for output, and both are deleted afterwards.
+ *
+ * Row counts from 1K up to 100M can be selected with {@code -p rows=...};
+ * benchmarks that collect every product into a list need a heap large enough
+ * for the whole file, so use the streaming variants for the largest sizes.
+ */
+@State(Scope.Benchmark)
+public class ProductFileState {
+
+    @Param({"1000", "100000", "1000000"})
+    public long rows;
+
+    @Param({"0.3"})
+    public double electronicsShare;
+
+    @Param({"0.0", "0.05"})
+    public double malformedShare;
+
+    public Path directory;
+    public Path inputPath;
+    public Path outputPath;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        directory = Files.createTempDirectory("etl-bench");
+        inputPath = directory.resolve("products.csv");
+        outputPath = directory.resolve("transformed_products.csv");
+        new ProductFileGenerator(electronicsShare, malformedShare, 42L).generate(inputPath, rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        Files.deleteIfExists(inputPath);
+        Files.deleteIfExists(outputPath);
+        Files.deleteIfExists(directory);
+    }
+}
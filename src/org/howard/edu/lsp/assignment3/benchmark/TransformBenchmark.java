@@ -0,0 +1,80 @@
+package org.howard.edu.lsp.assignment3.benchmark;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.howard.edu.lsp.assignment3.FixedPointProductTransformer;
+import org.howard.edu.lsp.assignment3.Product;
+import org.howard.edu.lsp.assignment3.ProductTransformer;
+import org.howard.edu.lsp.assignment3.RuleBasedProductTransformer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the transform stage one product at a time, so that the scores and
+ * the gc profiler's allocation figures are per row. Products cycle through a
+ * pre-built pool large enough to defeat branch prediction on the category mix.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TransformBenchmark {
+
+    private static final int POOL_SIZE = 1 << 16;
+    private static final String[] CATEGORIES = {"Electronics", "Education", "Stationery", "Home", "Toys"};
+
+    @Param({"bigdecimal", "fixedpoint", "rules"})
+    public String engine;
+
+    @Param({"0.3"})
+    public double electronicsShare;
+
+    private ProductTransformer transformer;
+    private Product[] products;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (engine) {
+            case "fixedpoint":
+                transformer = new FixedPointProductTransformer();
+                break;
+            case "rules":
+                transformer = new RuleBasedProductTransformer();
+                break;
+            default:
+                transformer = new ProductTransformer();
+        }
+
+        SplittableRandom random = new SplittableRandom(42L);
+        products = new Product[POOL_SIZE];
+        for (int i = 0; i < POOL_SIZE; i++) {
+            String category = random.nextDouble() < electronicsShare
+                ? "Electronics"
+                : CATEGORIES[1 + random.nextInt(CATEGORIES.length - 1)];
+            BigDecimal price = BigDecimal.valueOf(1 + random.nextLong(200_000), 2);
+            products[i] = new Product(Integer.toString(i), "Product " + i, price, category);
+        }
+    }
+
+    @Benchmark
+    public Product transform() {
+        Product product = products[next];
+        next = (next + 1) & (POOL_SIZE - 1);
+        return transformer.transform(product);
+    }
+}
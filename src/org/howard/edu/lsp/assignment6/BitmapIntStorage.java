@@ -0,0 +1,999 @@
+package org.howard.edu.lsp.assignment6;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Compressed bitmap int storage in the style of Roaring bitmaps.
+ * The 32-bit space is split into chunks of 65536 values keyed by the high 16
+ * bits. Each non-empty chunk is held in whichever container is smallest for it:
+ * <ul>
+ *   <li>an array container: sorted 16-bit values, for up to 4096 elements;</li>
+ *   <li>a bitmap container: 1024 words with one bit per value, for dense chunks;</li>
+ *   <li>a run container: (start, length) pairs, for chunks made of a few ranges.</li>
+ * </ul>
+ * Chunk keys are kept sorted in signed order, so iteration is ascending and the
+ * smallest and largest elements are found in the first and last containers.
+ * Set operations between two bitmaps combine matching containers. Two run
+ * containers are merged run by run; otherwise word-wise OR, AND and AND-NOT
+ * are used whenever a bitmap or run container is involved.
+ */
+final class BitmapIntStorage implements IntSetStorage {
+  private static final int ARRAY_MAX = 4096;
+  private static final int BITMAP_WORDS = 1024;
+  private static final int BITMAP_BYTES = BITMAP_WORDS * Long.BYTES;
+
+  private char[] keys = new char[4];
+  private Container[] containers = new Container[4];
+  private int count;
+  private int size;
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean contains(int value) {
+    int index = findKey(highBits(value));
+    return index >= 0 && containers[index].contains(lowBits(value));
+  }
+
+  @Override
+  public boolean add(int value) {
+    char key = highBits(value);
+    int index = findKey(key);
+    if (index < 0) {
+      ArrayContainer container = new ArrayContainer(4);
+      container.add(lowBits(value));
+      insertContainer(-index - 1, key, container);
+    } else {
+      Container container = containers[index];
+      if (container.contains(lowBits(value))) {
+        return false;
+      }
+      containers[index] = container.add(lowBits(value));
+    }
+    size++;
+    return true;
+  }
+
+  @Override
+  public boolean remove(int value) {
+    int index = findKey(highBits(value));
+    if (index < 0 || !containers[index].contains(lowBits(value))) {
+      return false;
+    }
+    Container container = containers[index].remove(lowBits(value));
+    if (container.cardinality() == 0) {
+      removeContainer(index);
+    } else {
+      containers[index] = container;
+    }
+    size--;
+    return true;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(containers, 0, count, null);
+    count = 0;
+    size = 0;
+  }
+
+  @Override
+  public int min() {
+    return combine(keys[0], containers[0].first());
+  }
+
+  @Override
+  public int max() {
+    return combine(keys[count - 1], containers[count - 1].last());
+  }
+
+  /**
+   * Iterates in ascending order.
+   */
+  @Override
+  public PrimitiveIterator.OfInt iterator() {
+    return new PrimitiveIterator.OfInt() {
+      private int index = -1;
+      private PrimitiveIterator.OfInt current;
+
+      @Override
+      public boolean hasNext() {
+        while (current == null || !current.hasNext()) {
+          if (++index >= count) {
+            return false;
+          }
+          current = containers[index].iterator(combine(keys[index], 0));
+        }
+        return true;
+      }
+
+      @Override
+      public int nextInt() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return current.nextInt();
+      }
+    };
+  }
+
+  /**
+   * Union. With another bitmap this is a merge over the sorted chunk keys,
+   * OR-ing the containers of chunks present on both sides.
+   */
+  @Override
+  public void addAll(IntSetStorage other) {
+    if (!(other instanceof BitmapIntStorage)) {
+      other.forEach(this::add);
+      return;
+    }
+    BitmapIntStorage that = (BitmapIntStorage) other;
+    char[] mergedKeys = new char[count + that.count];
+    Container[] merged = new Container[count + that.count];
+    int i = 0;
+    int j = 0;
+    int n = 0;
+    while (i < count || j < that.count) {
+      int cmp = i == count ? 1 : j == that.count ? -1 : Character.compare(keys[i], that.keys[j]);
+      if (cmp < 0) {
+        mergedKeys[n] = keys[i];
+        merged[n++] = containers[i++];
+      } else if (cmp > 0) {
+        mergedKeys[n] = that.keys[j];
+        merged[n++] = that.containers[j++].copy();
+      } else {
+        mergedKeys[n] = keys[i];
+        merged[n++] = containers[i++].or(that.containers[j++]);
+      }
+    }
+    replaceContainers(mergedKeys, merged, n);
+  }
+
+  /**
+   * Sorts a copy of the values and builds one container per chunk from it,
+   * then merges those containers in like {@link #addAll(IntSetStorage)}.
+   */
+  @Override
+  public void addAll(int[] values, int length) {
+    int[] sorted = Arrays.copyOf(values, length);
+    Arrays.sort(sorted);
+    BitmapIntStorage added = new BitmapIntStorage();
+    long[] words = new long[BITMAP_WORDS];
+    int start = 0;
+    while (start < length) {
+      char key = highBits(sorted[start]);
+      int end = start + 1;
+      while (end < length && highBits(sorted[end]) == key) {
+        end++;
+      }
+      Container container;
+      if (end - start <= ARRAY_MAX) {
+        char[] lows = new char[end - start];
+        int n = 0;
+        for (int i = start; i < end; i++) {
+          if (n == 0 || lows[n - 1] != lowBits(sorted[i])) {
+            lows[n++] = lowBits(sorted[i]);
+          }
+        }
+        container = new ArrayContainer(lows, n);
+      } else {
+        for (int i = start; i < end; i++) {
+          words[lowBits(sorted[i]) >>> 6] |= 1L << sorted[i];
+        }
+        container = fromWords(words);
+        words = new long[BITMAP_WORDS];
+      }
+      added.appendContainer(key, container);
+      start = end;
+    }
+    mergeIn(added);
+  }
+
+  /**
+   * Adds one run container per chunk of the range, so the cost depends on
+   * the number of chunks rather than the number of values.
+   */
+  @Override
+  public void addRange(int from, int to) {
+    if (from < to) {
+      mergeIn(range(from, to - 1));
+    }
+  }
+
+  @Override
+  public void removeRange(int from, int to) {
+    if (from < to && count > 0) {
+      removeAll(range(from, to - 1));
+    }
+  }
+
+  private void mergeIn(BitmapIntStorage added) {
+    if (count == 0) {
+      replaceContainers(added.keys, added.containers, added.count);
+    } else {
+      addAll(added);
+    }
+  }
+
+  /**
+   * @return storage holding every value in {@code [first, last]}
+   */
+  private static BitmapIntStorage range(int first, int last) {
+    BitmapIntStorage range = new BitmapIntStorage();
+    char firstKey = highBits(first);
+    char lastKey = highBits(last);
+    for (int key = firstKey; key <= lastKey; key++) {
+      int low = key == firstKey ? lowBits(first) : 0;
+      int high = key == lastKey ? lowBits(last) : 0xFFFF;
+      range.appendContainer((char) key, rangeContainer(low, high));
+    }
+    return range;
+  }
+
+  /**
+   * Intersection. With another bitmap only chunks present on both sides are
+   * visited, and their containers are AND-ed.
+   */
+  @Override
+  public void retainAll(IntSetStorage other) {
+    if (!(other instanceof BitmapIntStorage)) {
+      BitmapIntStorage kept = new BitmapIntStorage();
+      forEach(value -> {
+        if (other.contains(value)) {
+          kept.add(value);
+        }
+      });
+      replaceContainers(kept.keys, kept.containers, kept.count);
+      return;
+    }
+    BitmapIntStorage that = (BitmapIntStorage) other;
+    int n = 0;
+    for (int i = 0; i < count; i++) {
+      int j = that.findKey(keys[i]);
+      if (j >= 0) {
+        Container result = containers[i].and(that.containers[j]);
+        if (result.cardinality() > 0) {
+          keys[n] = keys[i];
+          containers[n++] = result;
+        }
+      }
+    }
+    replaceContainers(keys, containers, n);
+  }
+
+  /**
+   * Difference. With another bitmap, containers of chunks present on both
+   * sides are AND-NOT-ed and the rest are kept as they are.
+   */
+  @Override
+  public void removeAll(IntSetStorage other) {
+    if (!(other instanceof BitmapIntStorage)) {
+      other.forEach(this::remove);
+      return;
+    }
+    BitmapIntStorage that = (BitmapIntStorage) other;
+    int n = 0;
+    for (int i = 0; i < count; i++) {
+      int j = that.findKey(keys[i]);
+      Container result = j >= 0 ? containers[i].andNot(that.containers[j]) : containers[i];
+      if (result.cardinality() > 0) {
+        keys[n] = keys[i];
+        containers[n++] = result;
+      }
+    }
+    replaceContainers(keys, containers, n);
+  }
+
+  @Override
+  public IntSetStorage complementIn(IntSetStorage universe) {
+    BitmapIntStorage complement = new BitmapIntStorage();
+    if (universe instanceof BitmapIntStorage) {
+      complement.addAll(universe);
+      complement.removeAll(this);
+    } else {
+      universe.forEach(value -> {
+        if (!contains(value)) {
+          complement.add(value);
+        }
+      });
+    }
+    return complement;
+  }
+
+  private void replaceContainers(char[] newKeys, Container[] newContainers, int newCount) {
+    if (newContainers != containers) {
+      keys = newKeys;
+      containers = newContainers;
+    } else {
+      Arrays.fill(containers, newCount, count, null);
+    }
+    count = newCount;
+    size = 0;
+    for (int i = 0; i < count; i++) {
+      size += containers[i].cardinality();
+    }
+  }
+
+  private int findKey(char key) {
+    return Arrays.binarySearch(keys, 0, count, key);
+  }
+
+  private void insertContainer(int index, char key, Container container) {
+    if (count == keys.length) {
+      int capacity = Math.max(4, count * 2);
+      keys = Arrays.copyOf(keys, capacity);
+      containers = Arrays.copyOf(containers, capacity);
+    }
+    System.arraycopy(keys, index, keys, index + 1, count - index);
+    System.arraycopy(containers, index, containers, index + 1, count - index);
+    keys[index] = key;
+    containers[index] = container;
+    count++;
+  }
+
+  /** Adds a container for a key above every current key. */
+  private void appendContainer(char key, Container container) {
+    insertContainer(count, key, container);
+    size += container.cardinality();
+  }
+
+  private void removeContainer(int index) {
+    System.arraycopy(keys, index + 1, keys, index, count - index - 1);
+    System.arraycopy(containers, index + 1, containers, index, count - index - 1);
+    containers[--count] = null;
+  }
+
+  /** High 16 bits with the sign flipped, so that unsigned key order is signed value order. */
+  private static char highBits(int value) {
+    return (char) ((value >>> 16) ^ 0x8000);
+  }
+
+  private static char lowBits(int value) {
+    return (char) value;
+  }
+
+  private static int combine(char key, int low) {
+    return ((key ^ 0x8000) << 16) | low;
+  }
+
+  /**
+   * @return a container holding {@code [low, high]}: a single run, or an
+   *     array container when that is no larger
+   */
+  private static Container rangeContainer(int low, int high) {
+    if (high - low < 2) {
+      return new ArrayContainer(new char[] {(char) low, (char) high}, high - low + 1);
+    }
+    return new RunContainer(new char[] {(char) low, (char) (high - low)}, 1, high - low + 1);
+  }
+
+  /**
+   * Picks the smallest container for a chunk given as bitmap words.
+   * Array containers take 2 bytes per element, run containers 4 bytes per run,
+   * and bitmap containers a fixed 8 KB.
+   */
+  private static Container fromWords(long[] words) {
+    int cardinality = 0;
+    int runs = 0;
+    long previousTopBit = 0;
+    for (long word : words) {
+      cardinality += Long.bitCount(word);
+      // A run starts at every set bit whose lower neighbour is clear
+      runs += Long.bitCount(word & ~((word << 1) | previousTopBit));
+      previousTopBit = word >>> 63;
+    }
+
+    if (runsAreSmallest(runs, cardinality)) {
+      return RunContainer.fromWords(words, runs, cardinality);
+    }
+    if (cardinality <= ARRAY_MAX) {
+      return ArrayContainer.fromWords(words, cardinality);
+    }
+    return new BitmapContainer(words, cardinality);
+  }
+
+  /**
+   * @return whether a run container is smaller than both an array and a
+   *     bitmap container for a chunk with these counts
+   */
+  private static boolean runsAreSmallest(int runs, int cardinality) {
+    int runBytes = runs * 2 * Character.BYTES;
+    int arrayBytes = cardinality * Character.BYTES;
+    return runBytes < Math.min(arrayBytes, BITMAP_BYTES);
+  }
+
+  /**
+   * Holds the values of one 65536-value chunk as unsigned 16-bit numbers.
+   * Containers that change representation return the replacement from
+   * {@link #add} and {@link #remove}; binary operations always return a new
+   * container and leave both operands unchanged.
+   */
+  private abstract static class Container {
+    abstract int cardinality();
+
+    abstract boolean contains(char low);
+
+    /** Adds a value known to be absent. */
+    abstract Container add(char low);
+
+    /** Removes a value known to be present. */
+    abstract Container remove(char low);
+
+    abstract int first();
+
+    abstract int last();
+
+    abstract Container copy();
+
+    /** Sets this container's bits in a 1024-word bitmap. */
+    abstract void orInto(long[] words);
+
+    abstract PrimitiveIterator.OfInt iterator(int base);
+
+    long[] toWords() {
+      long[] words = new long[BITMAP_WORDS];
+      orInto(words);
+      return words;
+    }
+
+    Container or(Container other) {
+      long[] words = toWords();
+      other.orInto(words);
+      return fromWords(words);
+    }
+
+    Container and(Container other) {
+      if (other instanceof ArrayContainer) {
+        return other.and(this);
+      }
+      long[] words = toWords();
+      long[] otherWords = other.toWords();
+      for (int i = 0; i < BITMAP_WORDS; i++) {
+        words[i] &= otherWords[i];
+      }
+      return fromWords(words);
+    }
+
+    Container andNot(Container other) {
+      long[] words = toWords();
+      long[] otherWords = other.toWords();
+      for (int i = 0; i < BITMAP_WORDS; i++) {
+        words[i] &= ~otherWords[i];
+      }
+      return fromWords(words);
+    }
+  }
+
+  /** Sorted array of up to 4096 values. */
+  private static final class ArrayContainer extends Container {
+    private char[] values;
+    private int cardinality;
+
+    ArrayContainer(int capacity) {
+      values = new char[capacity];
+    }
+
+    private ArrayContainer(char[] values, int cardinality) {
+      this.values = values;
+      this.cardinality = cardinality;
+    }
+
+    static ArrayContainer fromWords(long[] words, int cardinality) {
+      char[] values = new char[cardinality];
+      int n = 0;
+      for (int i = 0; i < words.length; i++) {
+        for (long word = words[i]; word != 0; word &= word - 1) {
+          values[n++] = (char) (i * Long.SIZE + Long.numberOfTrailingZeros(word));
+        }
+      }
+      return new ArrayContainer(values, cardinality);
+    }
+
+    @Override
+    int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    boolean contains(char low) {
+      return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+    }
+
+    @Override
+    Container add(char low) {
+      if (cardinality == ARRAY_MAX) {
+        return new BitmapContainer(toWords(), cardinality).add(low);
+      }
+      if (cardinality == values.length) {
+        values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+      }
+      int index = -Arrays.binarySearch(values, 0, cardinality, low) - 1;
+      System.arraycopy(values, index, values, index + 1, cardinality - index);
+      values[index] = low;
+      cardinality++;
+      return this;
+    }
+
+    @Override
+    Container remove(char low) {
+      int index = Arrays.binarySearch(values, 0, cardinality, low);
+      System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+      cardinality--;
+      return this;
+    }
+
+    @Override
+    int first() {
+      return values[0];
+    }
+
+    @Override
+    int last() {
+      return values[cardinality - 1];
+    }
+
+    @Override
+    Container copy() {
+      return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+    }
+
+    @Override
+    void orInto(long[] words) {
+      for (int i = 0; i < cardinality; i++) {
+        words[values[i] >>> 6] |= 1L << values[i];
+      }
+    }
+
+    @Override
+    PrimitiveIterator.OfInt iterator(int base) {
+      return new PrimitiveIterator.OfInt() {
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+          return next < cardinality;
+        }
+
+        @Override
+        public int nextInt() {
+          if (next >= cardinality) {
+            throw new NoSuchElementException();
+          }
+          return base | values[next++];
+        }
+      };
+    }
+
+    /** Merges two sorted arrays; falls back to bitmap words if the result is too large. */
+    @Override
+    Container or(Container other) {
+      if (!(other instanceof ArrayContainer)) {
+        return super.or(other);
+      }
+      ArrayContainer that = (ArrayContainer) other;
+      char[] merged = new char[cardinality + that.cardinality];
+      int i = 0;
+      int j = 0;
+      int n = 0;
+      while (i < cardinality && j < that.cardinality) {
+        char a = values[i];
+        char b = that.values[j];
+        merged[n++] = a <= b ? a : b;
+        i += a <= b ? 1 : 0;
+        j += b <= a ? 1 : 0;
+      }
+      while (i < cardinality) {
+        merged[n++] = values[i++];
+      }
+      while (j < that.cardinality) {
+        merged[n++] = that.values[j++];
+      }
+      ArrayContainer result = new ArrayContainer(merged, n);
+      return n <= ARRAY_MAX ? result : BitmapIntStorage.fromWords(result.toWords());
+    }
+
+    /** Keeps the values the other container holds; never larger than this array. */
+    @Override
+    Container and(Container other) {
+      char[] kept = new char[cardinality];
+      int n = 0;
+      for (int i = 0; i < cardinality; i++) {
+        if (other.contains(values[i])) {
+          kept[n++] = values[i];
+        }
+      }
+      return new ArrayContainer(kept, n);
+    }
+
+    @Override
+    Container andNot(Container other) {
+      char[] kept = new char[cardinality];
+      int n = 0;
+      for (int i = 0; i < cardinality; i++) {
+        if (!other.contains(values[i])) {
+          kept[n++] = values[i];
+        }
+      }
+      return new ArrayContainer(kept, n);
+    }
+  }
+
+  /** One bit per value in 1024 64-bit words. */
+  private static final class BitmapContainer extends Container {
+    private final long[] words;
+    private int cardinality;
+
+    BitmapContainer(long[] words, int cardinality) {
+      this.words = words;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    boolean contains(char low) {
+      return (words[low >>> 6] & (1L << low)) != 0;
+    }
+
+    @Override
+    Container add(char low) {
+      words[low >>> 6] |= 1L << low;
+      cardinality++;
+      return this;
+    }
+
+    @Override
+    Container remove(char low) {
+      words[low >>> 6] &= ~(1L << low);
+      cardinality--;
+      return cardinality <= ARRAY_MAX ? ArrayContainer.fromWords(words, cardinality) : this;
+    }
+
+    @Override
+    int first() {
+      int i = 0;
+      while (words[i] == 0) {
+        i++;
+      }
+      return i * Long.SIZE + Long.numberOfTrailingZeros(words[i]);
+    }
+
+    @Override
+    int last() {
+      int i = BITMAP_WORDS - 1;
+      while (words[i] == 0) {
+        i--;
+      }
+      return i * Long.SIZE + Long.SIZE - 1 - Long.numberOfLeadingZeros(words[i]);
+    }
+
+    @Override
+    Container copy() {
+      return new BitmapContainer(words.clone(), cardinality);
+    }
+
+    @Override
+    void orInto(long[] target) {
+      for (int i = 0; i < BITMAP_WORDS; i++) {
+        target[i] |= words[i];
+      }
+    }
+
+    @Override
+    long[] toWords() {
+      return words.clone();
+    }
+
+    @Override
+    PrimitiveIterator.OfInt iterator(int base) {
+      return new PrimitiveIterator.OfInt() {
+        private int index;
+        private long word = words[0];
+
+        @Override
+        public boolean hasNext() {
+          while (word == 0) {
+            if (++index >= BITMAP_WORDS) {
+              return false;
+            }
+            word = words[index];
+          }
+          return true;
+        }
+
+        @Override
+        public int nextInt() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          int low = index * Long.SIZE + Long.numberOfTrailingZeros(word);
+          word &= word - 1;
+          return base | low;
+        }
+      };
+    }
+  }
+
+  /**
+   * Sorted, non-adjacent runs of consecutive values, each stored as a start
+   * and a length minus one. Run containers are produced by the set operations
+   * when they are the most compact form; modifying one converts it back to an
+   * array or bitmap container.
+   */
+  private static final class RunContainer extends Container {
+    private final char[] runs;
+    private final int runCount;
+    private final int cardinality;
+
+    private RunContainer(char[] runs, int runCount, int cardinality) {
+      this.runs = runs;
+      this.runCount = runCount;
+      this.cardinality = cardinality;
+    }
+
+    /**
+     * Collects the runs of a bitmap a word at a time: the next run starts at
+     * the lowest set bit and ends below the lowest clear bit after it.
+     */
+    static RunContainer fromWords(long[] words, int runCount, int cardinality) {
+      char[] runs = new char[runCount * 2];
+      int n = 0;
+      int start = -1;
+      for (int i = 0; i < BITMAP_WORDS; i++) {
+        long word = words[i];
+        int base = i * Long.SIZE;
+        while (true) {
+          if (start < 0) {
+            if (word == 0) {
+              break;
+            }
+            int bit = Long.numberOfTrailingZeros(word);
+            start = base + bit;
+            // Set the bits below the start so the next clear bit ends the run
+            word |= (1L << bit) - 1;
+          }
+          if (word == -1L) {
+            break; // The run continues into the next word
+          }
+          int end = Long.numberOfTrailingZeros(~word);
+          runs[n++] = (char) start;
+          runs[n++] = (char) (base + end - 1 - start);
+          start = -1;
+          word &= -1L << end;
+        }
+      }
+      if (start >= 0) {
+        runs[n++] = (char) start;
+        runs[n] = (char) (BITMAP_WORDS * Long.SIZE - 1 - start);
+      }
+      return new RunContainer(runs, runCount, cardinality);
+    }
+
+    /**
+     * Wraps merged runs in the smallest container, as {@link
+     * BitmapIntStorage#fromWords} would choose for the same values.
+     */
+    private static Container fromRuns(char[] runs, int runCount) {
+      int cardinality = 0;
+      for (int r = 0; r < runCount; r++) {
+        cardinality += runs[2 * r + 1] + 1;
+      }
+      RunContainer container = new RunContainer(Arrays.copyOf(runs, 2 * runCount), runCount, cardinality);
+      return runsAreSmallest(runCount, cardinality) ? container : BitmapIntStorage.fromWords(container.toWords());
+    }
+
+    /**
+     * Appends {@code [start, end]} to the first {@code n} entries of a run
+     * array, extending the last run instead when the two overlap or touch.
+     *
+     * @return the new number of entries
+     */
+    private static int appendRun(char[] runs, int n, int start, int end) {
+      if (n > 0) {
+        int lastStart = runs[n - 2];
+        int lastEnd = lastStart + runs[n - 1];
+        if (start <= lastEnd + 1) {
+          runs[n - 1] = (char) (Math.max(lastEnd, end) - lastStart);
+          return n;
+        }
+      }
+      runs[n] = (char) start;
+      runs[n + 1] = (char) (end - start);
+      return n + 2;
+    }
+
+    private int start(int run) {
+      return runs[2 * run];
+    }
+
+    private int end(int run) {
+      return runs[2 * run] + runs[2 * run + 1];
+    }
+
+    /** Merges the runs of both sides in start order, without a bitmap. */
+    @Override
+    Container or(Container other) {
+      if (!(other instanceof RunContainer)) {
+        return super.or(other);
+      }
+      RunContainer that = (RunContainer) other;
+      char[] merged = new char[2 * (runCount + that.runCount)];
+      int n = 0;
+      int i = 0;
+      int j = 0;
+      while (i < runCount || j < that.runCount) {
+        if (j >= that.runCount || (i < runCount && start(i) <= that.start(j))) {
+          n = appendRun(merged, n, start(i), end(i));
+          i++;
+        } else {
+          n = appendRun(merged, n, that.start(j), that.end(j));
+          j++;
+        }
+      }
+      return fromRuns(merged, n / 2);
+    }
+
+    /** Keeps the overlaps of the two run lists, without a bitmap. */
+    @Override
+    Container and(Container other) {
+      if (!(other instanceof RunContainer)) {
+        return super.and(other);
+      }
+      RunContainer that = (RunContainer) other;
+      char[] overlaps = new char[2 * (runCount + that.runCount)];
+      int n = 0;
+      int i = 0;
+      int j = 0;
+      while (i < runCount && j < that.runCount) {
+        int start = Math.max(start(i), that.start(j));
+        int end = Math.min(end(i), that.end(j));
+        if (start <= end) {
+          n = appendRun(overlaps, n, start, end);
+        }
+        if (end(i) < that.end(j)) {
+          i++;
+        } else {
+          j++;
+        }
+      }
+      return fromRuns(overlaps, n / 2);
+    }
+
+    /** Cuts the other side's runs out of this one's, without a bitmap. */
+    @Override
+    Container andNot(Container other) {
+      if (!(other instanceof RunContainer)) {
+        return super.andNot(other);
+      }
+      RunContainer that = (RunContainer) other;
+      char[] remaining = new char[2 * (runCount + that.runCount)];
+      int n = 0;
+      int j = 0;
+      for (int i = 0; i < runCount; i++) {
+        int start = start(i);
+        int end = end(i);
+        while (j < that.runCount && that.end(j) < start) {
+          j++;
+        }
+        for (int k = j; start <= end && k < that.runCount && that.start(k) <= end; k++) {
+          if (that.start(k) > start) {
+            n = appendRun(remaining, n, start, that.start(k) - 1);
+          }
+          start = Math.max(start, that.end(k) + 1);
+        }
+        if (start <= end) {
+          n = appendRun(remaining, n, start, end);
+        }
+      }
+      return fromRuns(remaining, n / 2);
+    }
+
+    @Override
+    int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    boolean contains(char low) {
+      int lo = 0;
+      int hi = runCount - 1;
+      while (lo <= hi) {
+        int mid = (lo + hi) >>> 1;
+        int start = runs[2 * mid];
+        if (low < start) {
+          hi = mid - 1;
+        } else if (low > start + runs[2 * mid + 1]) {
+          lo = mid + 1;
+        } else {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    Container add(char low) {
+      return toMutable().add(low);
+    }
+
+    @Override
+    Container remove(char low) {
+      return toMutable().remove(low);
+    }
+
+    private Container toMutable() {
+      long[] words = toWords();
+      return cardinality <= ARRAY_MAX
+          ? ArrayContainer.fromWords(words, cardinality)
+          : new BitmapContainer(words, cardinality);
+    }
+
+    @Override
+    int first() {
+      return runs[0];
+    }
+
+    @Override
+    int last() {
+      return runs[2 * runCount - 2] + runs[2 * runCount - 1];
+    }
+
+    @Override
+    Container copy() {
+      return this; // Immutable
+    }
+
+    @Override
+    void orInto(long[] words) {
+      for (int r = 0; r < runCount; r++) {
+        int start = runs[2 * r];
+        int end = start + runs[2 * r + 1];
+        int firstWord = start >>> 6;
+        int lastWord = end >>> 6;
+        long firstMask = -1L << start;
+        long lastMask = -1L >>> (Long.SIZE - 1 - (end & 63));
+        if (firstWord == lastWord) {
+          words[firstWord] |= firstMask & lastMask;
+        } else {
+          words[firstWord] |= firstMask;
+          Arrays.fill(words, firstWord + 1, lastWord, -1L);
+          words[lastWord] |= lastMask;
+        }
+      }
+    }
+
+    @Override
+    PrimitiveIterator.OfInt iterator(int base) {
+      return new PrimitiveIterator.OfInt() {
+        private int run;
+        private int offset;
+
+        @Override
+        public boolean hasNext() {
+          return run < runCount;
+        }
+
+        @Override
+        public int nextInt() {
+          if (run >= runCount) {
+            throw new NoSuchElementException();
+          }
+          int low = runs[2 * run] + offset;
+          if (offset++ == runs[2 * run + 1]) {
+            run++;
+            offset = 0;
+          }
+          return base | low;
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,545 @@
+package org.howard.edu.lsp.assignment6;
+
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * ConcurrentIntegerSet is a thread-safe set of unique integers with the same
+ * operations as {@link IntegerSet}.
+ * Elements are spread over a fixed number of stripes by a hash of their value.
+ * Each stripe is a primitive int hash table guarded by its own lock, so
+ * threads adding, removing or looking up values in different stripes do not
+ * block each other, and lookups usually take no lock at all.
+ *
+ * Operations that look at the whole set (length, equals, toString, the set
+ * operations and so on) lock every stripe, so they see a consistent snapshot
+ * and take effect atomically. When two concurrent sets are involved, their
+ * stripes are always locked in the same global order, so such operations
+ * cannot deadlock with each other.
+ */
+public class ConcurrentIntegerSet {
+  private static final int MAX_STRIPES = 1 << 16;
+  private static final AtomicLong NEXT_ID = new AtomicLong();
+
+  /** Orders lock acquisition between sets. */
+  private final long id = NEXT_ID.getAndIncrement();
+  private final Stripe[] stripes;
+  private final int mask;
+
+  /**
+   * Constructs an empty set with four stripes per available processor.
+   */
+  public ConcurrentIntegerSet() {
+    this(4 * Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Constructs an empty set sized for the given number of concurrently
+   * updating threads. The number of stripes is rounded up to a power of two.
+   *
+   * @param concurrencyLevel the expected number of concurrent writers
+   * @throws IllegalArgumentException if concurrencyLevel is less than 1
+   */
+  public ConcurrentIntegerSet(int concurrencyLevel) {
+    if (concurrencyLevel < 1) {
+      throw new IllegalArgumentException("Concurrency level must be at least 1");
+    }
+    int level = Math.min(concurrencyLevel, MAX_STRIPES);
+    int count = level == 1 ? 1 : Integer.highestOneBit(level - 1) << 1;
+    stripes = new Stripe[count];
+    for (int i = 0; i < count; i++) {
+      stripes[i] = new Stripe();
+    }
+    mask = count - 1;
+  }
+
+  /**
+   * Clears all elements from the set, making it empty.
+   */
+  public void clear() {
+    long[] stamps = writeLockAll();
+    try {
+      for (Stripe stripe : stripes) {
+        stripe.storage.clear();
+      }
+    } finally {
+      unlockAll(stamps);
+    }
+  }
+
+  /**
+   * Returns the number of elements in the set.
+   *
+   * @return the size of the set
+   */
+  public int length() {
+    long[] stamps = readLockAll();
+    try {
+      return size();
+    } finally {
+      unlockAll(stamps);
+    }
+  }
+
+  /**
+   * Checks whether the set is empty.
+   *
+   * @return true if the set contains no elements, false otherwise
+   */
+  public boolean isEmpty() {
+    return length() == 0;
+  }
+
+  /**
+   * Checks whether the set contains a specific value.
+   * The lookup is first tried without locking and is repeated under the
+   * stripe's read lock only if a writer changed the stripe meanwhile.
+   *
+   * @param value the integer to search for
+   * @return true if the set contains the value, false otherwise
+   */
+  public boolean contains(int value) {
+    Stripe stripe = stripeFor(value);
+    StampedLock lock = stripe.lock;
+    long stamp = lock.tryOptimisticRead();
+    if (stamp != 0) {
+      try {
+        boolean found = stripe.storage.contains(value);
+        if (lock.validate(stamp)) {
+          return found;
+        }
+      } catch (RuntimeException e) {
+        // The table was read in the middle of a resize; retry under the lock
+      }
+    }
+    stamp = lock.readLock();
+    try {
+      return stripe.storage.contains(value);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * Adds an integer to the set if it is not already present.
+   *
+   * @param item the integer to add
+   * @return true if the integer was added
+   */
+  public boolean add(int item) {
+    Stripe stripe = stripeFor(item);
+    long stamp = stripe.lock.writeLock();
+    try {
+      return stripe.storage.add(item);
+    } finally {
+      stripe.lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Removes an integer from the set if it is present.
+   *
+   * @param item the integer to remove
+   * @return true if the integer was removed
+   */
+  public boolean remove(int item) {
+    Stripe stripe = stripeFor(item);
+    long stamp = stripe.lock.writeLock();
+    try {
+      return stripe.storage.remove(item);
+    } finally {
+      stripe.lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * Returns the largest element in the set.
+   *
+   * @return the maximum value in the set
+   * @throws IllegalStateException if the set is empty
+   */
+  public int largest() {
+    long[] stamps = readLockAll();
+    try {
+      checkNotEmpty();
+      int max = Integer.MIN_VALUE;
+      for (Stripe stripe : stripes) {
+        if (!stripe.storage.isEmpty()) {
+          max = Math.max(max, stripe.storage.max());
+        }
+      }
+      return max;
+    } finally {
+      unlockAll(stamps);
+    }
+  }
+
+  /**
+   * Returns the smallest element in the set.
+   *
+   * @return the minimum value in the set
+   * @throws IllegalStateException if the set is empty
+   */
+  public int smallest() {
+    long[] stamps = readLockAll();
+    try {
+      checkNotEmpty();
+      int min = Integer.MAX_VALUE;
+      for (Stripe stripe : stripes) {
+        if (!stripe.storage.isEmpty()) {
+          min = Math.min(min, stripe.storage.min());
+        }
+      }
+      return min;
+    } finally {
+      unlockAll(stamps);
+    }
+  }
+
+  /**
+   * Performs a union operation with another concurrent set.
+   * Both sets are locked for the duration, so the result reflects a single
+   * snapshot of the other set.
+   *
+   * @param other the other set to union with
+   */
+  public void union(ConcurrentIntegerSet other) {
+    if (other != null && other != this) {
+      withLocked(other, () -> apply(other.partitionFor(this), IntSetStorage::addAll));
+    }
+  }
+
+  /**
+   * Performs a union operation with a plain IntegerSet, which must not be
+   * modified by other threads during the call.
+   *
+   * @param other the other set to union with
+   */
+  public void union(IntegerSet other) {
+    if (other != null) {
+      IntSetStorage[] parts = partition(other.storage());
+      withWriteLocked(() -> apply(parts, IntSetStorage::addAll));
+    }
+  }
+
+  /**
+   * Performs an intersection operation with another concurrent set.
+   * Modifies this set to contain only elements present in both sets.
+   *
+   * @param other the other set to intersect with
+   */
+  public void intersect(ConcurrentIntegerSet other) {
+    if (other == null) {
+      clear();
+    } else if (other != this) {
+      withLocked(other, () -> apply(other.partitionFor(this), IntSetStorage::retainAll));
+    }
+  }
+
+  /**
+   * Performs an intersection operation with a plain IntegerSet, which must not
+   * be modified by other threads during the call.
+   *
+   * @param other the other set to intersect with
+   */
+  public void intersect(IntegerSet other) {
+    if (other == null) {
+      clear();
+    } else {
+      IntSetStorage[] parts = partition(other.storage());
+      withWriteLocked(() -> apply(parts, IntSetStorage::retainAll));
+    }
+  }
+
+  /**
+   * Performs a difference operation with another concurrent set.
+   * Modifies this set to contain only elements that are not in the other set.
+   *
+   * @param other the other set to difference with
+   */
+  public void diff(ConcurrentIntegerSet other) {
+    if (other == this) {
+      clear();
+    } else if (other != null) {
+      withLocked(other, () -> apply(other.partitionFor(this), IntSetStorage::removeAll));
+    }
+  }
+
+  /**
+   * Performs a difference operation with a plain IntegerSet, which must not be
+   * modified by other threads during the call.
+   *
+   * @param other the other set to difference with
+   */
+  public void diff(IntegerSet other) {
+    if (other != null) {
+      IntSetStorage[] parts = partition(other.storage());
+      withWriteLocked(() -> apply(parts, IntSetStorage::removeAll));
+    }
+  }
+
+  /**
+   * Performs a complement operation with respect to another concurrent set.
+   * Modifies this set to contain elements from the other set that are not in
+   * this set.
+   *
+   * @param other the other set to use as the universal set
+   */
+  public void complement(ConcurrentIntegerSet other) {
+    if (other == this) {
+      clear();
+    } else if (other != null) {
+      withLocked(other, () -> replaceWithComplement(other.partitionFor(this)));
+    }
+  }
+
+  /**
+   * Performs a complement operation with respect to a plain IntegerSet, which
+   * must not be modified by other threads during the call.
+   *
+   * @param other the other set to use as the universal set
+   */
+  public void complement(IntegerSet other) {
+    if (other != null) {
+      IntSetStorage[] parts = partition(other.storage());
+      withWriteLocked(() -> replaceWithComplement(parts));
+    }
+  }
+
+  /**
+   * Returns a copy of the current elements as a plain IntegerSet.
+   *
+   * @return a consistent snapshot of this set
+   */
+  public IntegerSet snapshot() {
+    IntegerSet copy = new IntegerSet();
+    long[] stamps = readLockAll();
+    try {
+      for (Stripe stripe : stripes) {
+        stripe.storage.forEach(copy::add);
+      }
+    } finally {
+      unlockAll(stamps);
+    }
+    return copy;
+  }
+
+  /**
+   * Compares this set with another object for equality.
+   * Two concurrent sets are equal if they contain the same elements at a
+   * single point in time.
+   *
+   * @param o the object to compare with
+   * @return true if o is a ConcurrentIntegerSet with the same elements
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    ConcurrentIntegerSet that = (ConcurrentIntegerSet) o;
+    ConcurrentIntegerSet first = id < that.id ? this : that;
+    ConcurrentIntegerSet second = first == this ? that : this;
+    long[] firstStamps = first.readLockAll();
+    try {
+      long[] secondStamps = second.readLockAll();
+      try {
+        if (size() != that.size()) {
+          return false;
+        }
+        IntSetStorage[] parts = that.partitionFor(this);
+        for (int i = 0; i < stripes.length; i++) {
+          if (!stripes[i].storage.containsAll(parts[i])) {
+            return false;
+          }
+        }
+        return true;
+      } finally {
+        second.unlockAll(secondStamps);
+      }
+    } finally {
+      first.unlockAll(firstStamps);
+    }
+  }
+
+  /**
+   * Returns a hash code consistent with {@link #equals(Object)}.
+   *
+   * @return the sum of the elements
+   */
+  @Override
+  public int hashCode() {
+    long[] stamps = readLockAll();
+    try {
+      int hash = 0;
+      for (Stripe stripe : stripes) {
+        hash += stripe.storage.hash();
+      }
+      return hash;
+    } finally {
+      unlockAll(stamps);
+    }
+  }
+
+  /**
+   * Returns a string representation of the set with the elements in
+   * ascending order.
+   * Format: [1, 2, 3]
+   *
+   * @return a string representation of the set
+   */
+  @Override
+  public String toString() {
+    int[] values;
+    long[] stamps = readLockAll();
+    try {
+      values = new int[size()];
+      int n = 0;
+      for (Stripe stripe : stripes) {
+        for (PrimitiveIterator.OfInt it = stripe.storage.iterator(); it.hasNext(); ) {
+          values[n++] = it.nextInt();
+        }
+      }
+    } finally {
+      unlockAll(stamps);
+    }
+    Arrays.sort(values);
+    return Arrays.toString(values);
+  }
+
+  private Stripe stripeFor(int value) {
+    return stripes[stripeIndex(value)];
+  }
+
+  /**
+   * Mixes the value's bits before picking a stripe, so that the stripe index
+   * does not correlate with the slot a value takes inside its stripe's table.
+   */
+  private int stripeIndex(int value) {
+    int h = value * 0x85EBCA6B;
+    return (h ^ (h >>> 16)) & mask;
+  }
+
+  private int size() {
+    int size = 0;
+    for (Stripe stripe : stripes) {
+      size += stripe.storage.size();
+    }
+    return size;
+  }
+
+  private void checkNotEmpty() {
+    if (size() == 0) {
+      throw new IllegalStateException("Set is empty");
+    }
+  }
+
+  /**
+   * Splits this set's elements into the stripes of a target set. When both
+   * sets have the same number of stripes the stripes are returned directly.
+   * Must be called while this set is locked.
+   */
+  private IntSetStorage[] partitionFor(ConcurrentIntegerSet target) {
+    IntSetStorage[] parts = new IntSetStorage[stripes.length];
+    for (int i = 0; i < stripes.length; i++) {
+      parts[i] = stripes[i].storage;
+    }
+    if (target.stripes.length == stripes.length) {
+      return parts;
+    }
+    return target.partition(parts);
+  }
+
+  private IntSetStorage[] partition(IntSetStorage... sources) {
+    IntSetStorage[] parts = new IntSetStorage[stripes.length];
+    for (int i = 0; i < parts.length; i++) {
+      parts[i] = new IntHashStorage();
+    }
+    for (IntSetStorage source : sources) {
+      source.forEach(value -> parts[stripeIndex(value)].add(value));
+    }
+    return parts;
+  }
+
+  private void apply(IntSetStorage[] parts, StripeOperation operation) {
+    for (int i = 0; i < stripes.length; i++) {
+      operation.apply(stripes[i].storage, parts[i]);
+    }
+  }
+
+  private void replaceWithComplement(IntSetStorage[] universe) {
+    for (int i = 0; i < stripes.length; i++) {
+      stripes[i].storage = stripes[i].storage.complementIn(universe[i]);
+    }
+  }
+
+  /**
+   * Runs an action with this set write-locked and another set read-locked,
+   * locking the set with the lower id first.
+   */
+  private void withLocked(ConcurrentIntegerSet other, Runnable action) {
+    long[] writeStamps = null;
+    long[] readStamps = null;
+    try {
+      if (id < other.id) {
+        writeStamps = writeLockAll();
+        readStamps = other.readLockAll();
+      } else {
+        readStamps = other.readLockAll();
+        writeStamps = writeLockAll();
+      }
+      action.run();
+    } finally {
+      if (writeStamps != null) {
+        unlockAll(writeStamps);
+      }
+      if (readStamps != null) {
+        other.unlockAll(readStamps);
+      }
+    }
+  }
+
+  private void withWriteLocked(Runnable action) {
+    long[] stamps = writeLockAll();
+    try {
+      action.run();
+    } finally {
+      unlockAll(stamps);
+    }
+  }
+
+  private long[] readLockAll() {
+    long[] stamps = new long[stripes.length];
+    for (int i = 0; i < stripes.length; i++) {
+      stamps[i] = stripes[i].lock.readLock();
+    }
+    return stamps;
+  }
+
+  private long[] writeLockAll() {
+    long[] stamps = new long[stripes.length];
+    for (int i = 0; i < stripes.length; i++) {
+      stamps[i] = stripes[i].lock.writeLock();
+    }
+    return stamps;
+  }
+
+  /** Releases stamps from either {@link #readLockAll()} or {@link #writeLockAll()}. */
+  private void unlockAll(long[] stamps) {
+    for (int i = stripes.length - 1; i >= 0; i--) {
+      stripes[i].lock.unlock(stamps[i]);
+    }
+  }
+
+  /** A set operation applied to one stripe. */
+  private interface StripeOperation {
+    void apply(IntSetStorage stripe, IntSetStorage other);
+  }
+
+  /** One partition of the set and the lock guarding it. */
+  private static final class Stripe {
+    final StampedLock lock = new StampedLock();
+    IntSetStorage storage = new IntHashStorage();
+  }
+}
@@ -0,0 +1,223 @@
+package org.howard.edu.lsp.assignment6;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit 5 test suite for the ConcurrentIntegerSet class.
+ * Tests cover the single-threaded behaviour shared with IntegerSet and
+ * updates from several threads at once.
+ */
+@DisplayName("ConcurrentIntegerSet Test Suite")
+class ConcurrentIntegerSetTest {
+
+  private static final int THREADS = 8;
+
+  private ConcurrentIntegerSet set1;
+  private ConcurrentIntegerSet set2;
+
+  @BeforeEach
+  void setUp() {
+    set1 = new ConcurrentIntegerSet(THREADS);
+    set2 = new ConcurrentIntegerSet(3);
+  }
+
+  // ========== Basic Operation Tests ==========
+
+  @Test
+  @DisplayName("add(), remove() and contains() behave like IntegerSet")
+  void testBasicOperations() {
+    assertTrue(set1.isEmpty());
+    assertTrue(set1.add(5));
+    assertFalse(set1.add(5));
+    assertTrue(set1.add(-3));
+    assertTrue(set1.contains(5));
+    assertFalse(set1.contains(4));
+    assertEquals(2, set1.length());
+    assertEquals(-3, set1.smallest());
+    assertEquals(5, set1.largest());
+    assertTrue(set1.remove(5));
+    assertFalse(set1.remove(5));
+    assertEquals("[-3]", set1.toString());
+  }
+
+  @Test
+  @DisplayName("smallest() and largest() throw on an empty set")
+  void testEmptySetThrows() {
+    assertThrows(IllegalStateException.class, set1::smallest);
+    assertThrows(IllegalStateException.class, set1::largest);
+  }
+
+  @Test
+  @DisplayName("constructor rejects a concurrency level below 1")
+  void testInvalidConcurrencyLevel() {
+    assertThrows(IllegalArgumentException.class, () -> new ConcurrentIntegerSet(0));
+  }
+
+  @Test
+  @DisplayName("set operations between sets with different stripe counts")
+  void testSetOperations() {
+    for (int i = 0; i < 100; i++) {
+      set1.add(i);
+    }
+    for (int i = 50; i < 150; i++) {
+      set2.add(i);
+    }
+
+    ConcurrentIntegerSet union = new ConcurrentIntegerSet();
+    union.union(set1);
+    union.union(set2);
+    assertEquals(150, union.length());
+
+    ConcurrentIntegerSet intersection = new ConcurrentIntegerSet(2);
+    intersection.union(set1);
+    intersection.intersect(set2);
+    assertEquals(50, intersection.length());
+    assertEquals(50, intersection.smallest());
+
+    ConcurrentIntegerSet difference = new ConcurrentIntegerSet(THREADS);
+    difference.union(set1);
+    difference.diff(set2);
+    assertEquals(50, difference.length());
+    assertEquals(49, difference.largest());
+
+    set2.complement(union);
+    assertEquals(difference, set2);
+    assertEquals(difference.hashCode(), set2.hashCode());
+  }
+
+  @Test
+  @DisplayName("set operations with a plain IntegerSet and snapshot()")
+  void testPlainIntegerSetOperations() {
+    IntegerSet plain = new IntegerSet(IntegerSet.Storage.BITMAP);
+    for (int i = 0; i < 10; i++) {
+      plain.add(i);
+      set1.add(i * 2);
+    }
+    set1.intersect(plain);
+    assertEquals("[0, 2, 4, 6, 8]", set1.toString());
+    set1.complement(plain);
+    assertEquals("[1, 3, 5, 7, 9]", set1.toString());
+
+    IntegerSet copy = set1.snapshot();
+    set1.clear();
+    assertEquals(5, copy.length());
+    assertTrue(copy.contains(9));
+  }
+
+  @Test
+  @DisplayName("operations with the set itself behave like operations with a copy")
+  void testOperationsWithSelf() {
+    set1.add(1);
+    set1.add(2);
+    set1.union(set1);
+    set1.intersect(set1);
+    assertEquals(2, set1.length());
+    set1.diff(set1);
+    assertTrue(set1.isEmpty());
+  }
+
+  // ========== Concurrency Tests ==========
+
+  @Test
+  @DisplayName("concurrent add() and remove() from several threads lose no updates")
+  void testConcurrentAddRemove() throws InterruptedException {
+    runConcurrently(thread -> {
+      for (int i = thread; i < 200_000; i += THREADS) {
+        set1.add(i);
+      }
+      for (int i = thread; i < 200_000; i += 2 * THREADS) {
+        set1.remove(i);
+      }
+    });
+    assertEquals(100_000, set1.length());
+    for (int i = 0; i < 200_000; i++) {
+      assertEquals(i % (2 * THREADS) >= THREADS, set1.contains(i));
+    }
+  }
+
+  @Test
+  @DisplayName("concurrent set operations in opposite directions do not deadlock")
+  void testOpposingSetOperations() throws InterruptedException {
+    for (int i = 0; i < 1_000; i++) {
+      set1.add(i);
+      set2.add(i + 500);
+    }
+    runConcurrently(thread -> {
+      for (int i = 0; i < 200; i++) {
+        if (thread % 2 == 0) {
+          set1.union(set2);
+          assertNotEquals(set1, new ConcurrentIntegerSet());
+        } else {
+          set2.union(set1);
+          assertTrue(set2.length() >= 1_000);
+        }
+      }
+    });
+    assertEquals(set1, set2);
+    assertEquals(1_500, set1.length());
+  }
+
+  @Test
+  @DisplayName("length() never sees half of an atomic set operation")
+  void testSnapshotConsistency() throws InterruptedException {
+    ConcurrentIntegerSet evens = new ConcurrentIntegerSet(THREADS);
+    for (int i = 0; i < 10_000; i += 2) {
+      evens.add(i);
+    }
+    List<Integer> observed = new ArrayList<>();
+    runConcurrently(thread -> {
+      for (int i = 0; i < 100; i++) {
+        if (thread == 0) {
+          set1.union(evens);
+          set1.diff(evens);
+        } else if (thread == 1) {
+          int length = set1.length();
+          synchronized (observed) {
+            observed.add(length);
+          }
+        }
+      }
+    });
+    for (int length : observed) {
+      assertTrue(length == 0 || length == 5_000, "Observed partial length " + length);
+    }
+  }
+
+  private void runConcurrently(ThreadBody body) throws InterruptedException {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    List<Throwable> failures = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      int thread = t;
+      Thread worker = new Thread(() -> {
+        try {
+          start.await();
+          body.run(thread);
+        } catch (Throwable e) {
+          synchronized (failures) {
+            failures.add(e);
+          }
+        }
+      });
+      threads.add(worker);
+      worker.start();
+    }
+    start.countDown();
+    for (Thread worker : threads) {
+      worker.join();
+    }
+    assertTrue(failures.isEmpty(), () -> "Worker failed: " + failures.get(0));
+  }
+
+  private interface ThreadBody {
+    void run(int thread) throws Exception;
+  }
+}
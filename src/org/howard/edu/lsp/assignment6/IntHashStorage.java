@@ -0,0 +1,395 @@
+package org.howard.edu.lsp.assignment6;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Primitive int storage backed by an open-addressing hash table.
+ * Elements live in an array in insertion order, and a linear-probing index
+ * table maps each value to its position in that array, so values are never
+ * boxed. Membership tests, insertions and removals are O(1) on average, and
+ * iteration walks the element array.
+ *
+ * Removing an element leaves a tombstone at its position, so insertion order
+ * is kept; the array is compacted once tombstones outnumber the elements, or
+ * when it is full and a quarter of it is tombstones.
+ *
+ * The index table holds at most 2^30 slots and is never more than three
+ * quarters full, which limits the storage to {@link #MAX_CAPACITY} elements.
+ */
+final class IntHashStorage implements IntSetStorage {
+  private static final int MIN_CAPACITY = 8;
+  private static final int GOLDEN_RATIO = 0x9E3779B9;
+  private static final int MAX_TABLE_SIZE = 1 << 30;
+
+  /** The most elements the storage can hold. */
+  static final int MAX_CAPACITY = MAX_TABLE_SIZE / 4 * 3;
+
+  /** Elements in insertion order; only the first {@code end} entries are used. */
+  private int[] elements;
+  /** Bit set of the positions in {@code elements} that hold removed elements. */
+  private long[] removed;
+  /** Index table: position in {@code elements} plus one, or 0 for an empty slot. */
+  private int[] slots;
+  /** The number of elements, not counting tombstones. */
+  private int size;
+  /** The number of positions used in {@code elements}, tombstones included. */
+  private int end;
+  private int shift;
+
+  IntHashStorage() {
+    this(MIN_CAPACITY);
+  }
+
+  /**
+   * Creates storage sized to hold the given number of elements without resizing.
+   *
+   * @param expectedSize the number of elements expected
+   */
+  IntHashStorage(int expectedSize) {
+    allocate(Math.max(MIN_CAPACITY, Math.min(MAX_CAPACITY, expectedSize)));
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean contains(int value) {
+    return slots[findSlot(value)] != 0;
+  }
+
+  @Override
+  public boolean add(int value) {
+    int slot = findSlot(value);
+    if (slots[slot] != 0) {
+      return false;
+    }
+    if (end == elements.length) {
+      makeRoom();
+      slot = findSlot(value);
+    }
+    elements[end] = value;
+    slots[slot] = ++end;
+    size++;
+    return true;
+  }
+
+  @Override
+  public boolean remove(int value) {
+    int slot = findSlot(value);
+    if (slots[slot] == 0) {
+      return false;
+    }
+    int index = slots[slot] - 1;
+    deleteSlot(slot);
+    removed[index >>> 6] |= 1L << index;
+    size--;
+    if (end - size > size) {
+      compact();
+    }
+    return true;
+  }
+
+  @Override
+  public void clear() {
+    Arrays.fill(slots, 0);
+    Arrays.fill(removed, 0);
+    size = 0;
+    end = 0;
+  }
+
+  @Override
+  public int min() {
+    int min = Integer.MAX_VALUE;
+    for (int i = 0; i < end; i++) {
+      if (!isRemoved(i)) {
+        min = Math.min(min, elements[i]);
+      }
+    }
+    return min;
+  }
+
+  @Override
+  public int max() {
+    int max = Integer.MIN_VALUE;
+    for (int i = 0; i < end; i++) {
+      if (!isRemoved(i)) {
+        max = Math.max(max, elements[i]);
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Iterates in insertion order.
+   */
+  @Override
+  public PrimitiveIterator.OfInt iterator() {
+    return new PrimitiveIterator.OfInt() {
+      private int next;
+
+      @Override
+      public boolean hasNext() {
+        while (next < end && isRemoved(next)) {
+          next++;
+        }
+        return next < end;
+      }
+
+      @Override
+      public int nextInt() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return elements[next++];
+      }
+    };
+  }
+
+  /**
+   * Adds every element of another storage, in that storage's order.
+   */
+  @Override
+  public void addAll(IntSetStorage other) {
+    if (other instanceof IntHashStorage) {
+      IntHashStorage hashed = (IntHashStorage) other;
+      for (int i = 0; i < hashed.end; i++) {
+        if (!hashed.isRemoved(i)) {
+          add(hashed.elements[i]);
+        }
+      }
+    } else {
+      other.forEach(this::add);
+    }
+  }
+
+  /**
+   * Sizes the table for every value up front, so adding them never rehashes.
+   */
+  @Override
+  public void addAll(int[] values, int length) {
+    ensureCapacity((int) Math.min(MAX_CAPACITY, (long) size + length));
+    for (int i = 0; i < length; i++) {
+      add(values[i]);
+    }
+  }
+
+  @Override
+  public void addRange(int from, int to) {
+    if ((long) to - from > MAX_CAPACITY) {
+      throw new IllegalArgumentException("Range too large for hash storage");
+    }
+    ensureCapacity((int) Math.min(MAX_CAPACITY, (long) size + to - from));
+    for (int value = from; value < to; value++) {
+      add(value);
+    }
+  }
+
+  /**
+   * Removes the range value by value when it is smaller than the set, and
+   * otherwise filters the elements in one pass.
+   */
+  @Override
+  public void removeRange(int from, int to) {
+    if ((long) to - from < size) {
+      for (int value = from; value < to; value++) {
+        remove(value);
+      }
+      return;
+    }
+    int kept = 0;
+    for (int i = 0; i < end; i++) {
+      int value = elements[i];
+      if (!isRemoved(i) && (value < from || value >= to)) {
+        elements[kept++] = value;
+      }
+    }
+    truncate(kept);
+  }
+
+  @Override
+  public void retainAll(IntSetStorage other) {
+    retain(other, true);
+  }
+
+  @Override
+  public void removeAll(IntSetStorage other) {
+    retain(other, false);
+  }
+
+  /**
+   * Builds the complement in a single pass over the universe, keeping its order.
+   */
+  @Override
+  public IntSetStorage complementIn(IntSetStorage universe) {
+    IntHashStorage complement = new IntHashStorage(universe.size());
+    universe.forEach(value -> {
+      if (!contains(value)) {
+        complement.add(value);
+      }
+    });
+    return complement;
+  }
+
+  /**
+   * Keeps only the elements that are (or are not) in another storage,
+   * preserving the order of the kept elements. Runs in a single pass followed
+   * by one rebuild of the index table.
+   *
+   * @param other the storage to test membership against; must not be this storage
+   * @param keepIfPresent true to keep common elements, false to keep the others
+   */
+  private void retain(IntSetStorage other, boolean keepIfPresent) {
+    int kept = 0;
+    for (int i = 0; i < end; i++) {
+      int value = elements[i];
+      if (!isRemoved(i) && other.contains(value) == keepIfPresent) {
+        elements[kept++] = value;
+      }
+    }
+    truncate(kept);
+  }
+
+  /**
+   * Keeps the first {@code kept} positions, which hold no tombstones, and
+   * rebuilds the index table if anything was dropped.
+   */
+  private void truncate(int kept) {
+    if (kept != end) {
+      Arrays.fill(removed, 0, (end + 63) >>> 6, 0);
+      size = kept;
+      end = kept;
+      reindex();
+    }
+  }
+
+  @Override
+  public int hash() {
+    int hash = 0;
+    for (int i = 0; i < end; i++) {
+      if (!isRemoved(i)) {
+        hash += elements[i];
+      }
+    }
+    return hash;
+  }
+
+  private boolean isRemoved(int index) {
+    return (removed[index >>> 6] & (1L << index)) != 0;
+  }
+
+  /**
+   * Returns the slot holding the value, or the empty slot where it would go.
+   */
+  private int findSlot(int value) {
+    int mask = slots.length - 1;
+    int slot = (value * GOLDEN_RATIO) >>> shift;
+    while (slots[slot] != 0 && elements[slots[slot] - 1] != value) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Empties a slot with backward-shift deletion: later entries in the same
+   * probe run are moved up so that lookups never need tombstones.
+   */
+  private void deleteSlot(int slot) {
+    int mask = slots.length - 1;
+    int hole = slot;
+    int next = slot;
+    while (true) {
+      next = (next + 1) & mask;
+      int entry = slots[next];
+      if (entry == 0) {
+        break;
+      }
+      int home = (elements[entry - 1] * GOLDEN_RATIO) >>> shift;
+      // Move the entry if its home slot is not between the hole and its current slot
+      if (((next - home) & mask) >= ((next - hole) & mask)) {
+        slots[hole] = entry;
+        hole = next;
+      }
+    }
+    slots[hole] = 0;
+  }
+
+  /**
+   * Frees a position at the end of a full element array, by compacting it
+   * when a quarter of it is tombstones and by growing it otherwise.
+   *
+   * @throws IllegalStateException if the storage already holds {@link #MAX_CAPACITY} elements
+   */
+  private void makeRoom() {
+    if (end - size >= end / 4 && end > size) {
+      compact();
+    } else if (elements.length < MAX_CAPACITY) {
+      resize((int) Math.min(MAX_CAPACITY, (long) elements.length * 2));
+    } else if (end > size) {
+      compact();
+    } else {
+      throw new IllegalStateException("Hash storage cannot hold more than " + MAX_CAPACITY + " elements");
+    }
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity > elements.length) {
+      resize((int) Math.max(capacity, Math.min(MAX_CAPACITY, (long) elements.length * 2)));
+    }
+  }
+
+  private void resize(int capacity) {
+    compact();
+    int[] current = Arrays.copyOf(elements, size);
+    allocate(capacity);
+    System.arraycopy(current, 0, elements, 0, current.length);
+    end = size;
+    reindex();
+  }
+
+  /**
+   * Moves the elements over the tombstones, keeping their order, and points
+   * their index slots at the new positions. A slot only ever refers to a
+   * position that has not been overwritten yet, so lookups stay valid.
+   */
+  private void compact() {
+    if (end == size) {
+      return;
+    }
+    int kept = 0;
+    for (int i = 0; i < end; i++) {
+      if (!isRemoved(i)) {
+        int value = elements[i];
+        if (kept != i) {
+          elements[kept] = value;
+          slots[findSlot(value)] = kept + 1;
+        }
+        kept++;
+      }
+    }
+    Arrays.fill(removed, 0, (end + 63) >>> 6, 0);
+    end = kept;
+  }
+
+  /**
+   * Allocates arrays for the given number of elements with an index table
+   * at most half full, or three quarters full at the largest table size.
+   */
+  private void allocate(int capacity) {
+    int tableSize = (int) Math.min(MAX_TABLE_SIZE, Long.highestOneBit(capacity - 1L) << 2);
+    elements = new int[capacity];
+    removed = new long[(capacity + 63) >>> 6];
+    slots = new int[tableSize];
+    shift = Integer.numberOfLeadingZeros(tableSize) + 1;
+  }
+
+  private void reindex() {
+    Arrays.fill(slots, 0);
+    for (int i = 0; i < end; i++) {
+      slots[findSlot(elements[i])] = i + 1;
+    }
+  }
+}
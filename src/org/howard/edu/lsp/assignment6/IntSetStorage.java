@@ -0,0 +1,106 @@
+package org.howard.edu.lsp.assignment6;
+
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * Storage strategy behind an {@link IntegerSet}.
+ * Implementations hold unique primitive ints. Set operations take another
+ * storage, which may be of a different kind; each implementation uses a fast
+ * path when both sides share its representation and falls back to element-wise
+ * membership tests otherwise. Callers never pass a storage to its own set operations.
+ */
+interface IntSetStorage {
+
+  int size();
+
+  default boolean isEmpty() {
+    return size() == 0;
+  }
+
+  boolean contains(int value);
+
+  /**
+   * Adds a value if it is not already present.
+   *
+   * @return true if the value was added
+   */
+  boolean add(int value);
+
+  /**
+   * Removes a value if it is present.
+   *
+   * @return true if the value was removed
+   */
+  boolean remove(int value);
+
+  void clear();
+
+  /**
+   * @return the smallest element; only called on non-empty storage
+   */
+  int min();
+
+  /**
+   * @return the largest element; only called on non-empty storage
+   */
+  int max();
+
+  /**
+   * @return an iterator over the elements in this storage's natural order
+   */
+  PrimitiveIterator.OfInt iterator();
+
+  /**
+   * Adds values in bulk, ignoring duplicates.
+   *
+   * @param values the values; only the first {@code length} are read, and the array is not modified
+   * @param length the number of values
+   */
+  void addAll(int[] values, int length);
+
+  /** Adds every value in {@code [from, to)}; only called with {@code from <= to}. */
+  void addRange(int from, int to);
+
+  /** Removes every value in {@code [from, to)}; only called with {@code from <= to}. */
+  void removeRange(int from, int to);
+
+  /** Adds every element of another storage (union). */
+  void addAll(IntSetStorage other);
+
+  /** Keeps only the elements also in another storage (intersection). */
+  void retainAll(IntSetStorage other);
+
+  /** Removes every element that is in another storage (difference). */
+  void removeAll(IntSetStorage other);
+
+  /**
+   * Returns new storage of the same kind holding the elements of
+   * {@code universe} that are not in this storage.
+   */
+  IntSetStorage complementIn(IntSetStorage universe);
+
+  default void forEach(IntConsumer action) {
+    iterator().forEachRemaining(action);
+  }
+
+  default boolean containsAll(IntSetStorage other) {
+    for (PrimitiveIterator.OfInt it = other.iterator(); it.hasNext(); ) {
+      if (!contains(it.nextInt())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the sum of the elements, which depends only on their values
+   */
+  default int hash() {
+    int hash = 0;
+    for (PrimitiveIterator.OfInt it = iterator(); it.hasNext(); ) {
+      hash += it.nextInt();
+    }
+    return hash;
+  }
+}
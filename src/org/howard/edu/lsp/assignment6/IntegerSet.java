@@ -1,16 +1,130 @@
 package org.howard.edu.lsp.assignment6;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.stream.IntStream;
 
 /**
  * IntegerSet represents a mathematical set of unique integers.
  * This class provides standard set operations including union, intersection,
- * difference, and complement. The underlying storage is an ArrayList that
- * maintains uniqueness of elements (no duplicates allowed).
+ * difference, and complement. Elements are held in one of several primitive
+ * storage modes, chosen when the set is created (see {@link Storage}).
+ * Sets using different modes can be combined freely.
  */
 public class IntegerSet {
-  private List<Integer> set = new ArrayList<Integer>();
+
+  /**
+   * How an IntegerSet stores its elements.
+   */
+  public enum Storage {
+    /**
+     * A primitive int hash table. Membership tests are O(1) on average, the
+     * set operations run in time linear in the sizes of the two sets, and
+     * elements are listed in insertion order. Holds at most about 805 million elements.
+     * Best for small or sparse sets.
+     */
+    HASH,
+    /**
+     * A compressed bitmap that splits values into chunks of 65536 and stores
+     * each chunk as a sorted array, a bitmap or a list of runs, whichever is
+     * smallest. Set operations between two bitmap sets work a chunk at a time
+     * with word-wise bit operations, and elements are listed in ascending order.
+     * Best for large or dense sets such as ranges of IDs.
+     */
+    BITMAP,
+    /**
+     * A sorted primitive array. Membership tests are binary searches, the
+     * smallest and largest elements are found in O(1), and set operations
+     * between two sorted sets are linear merges that gallop through the
+     * larger set when one is much smaller. Adding or removing a single element
+     * shifts the elements after it, and elements are listed in ascending order.
+     * Best for read-heavy sets that are rebuilt in bulk.
+     */
+    SORTED
+  }
+
+  private IntSetStorage set;
+
+  /**
+   * Constructs an empty set using {@link Storage#HASH hash} storage.
+   */
+  public IntegerSet() {
+    this(Storage.HASH);
+  }
+
+  /**
+   * Constructs an empty set using the given storage mode.
+   *
+   * @param storage the storage mode (must not be null)
+   */
+  public IntegerSet(Storage storage) {
+    this.set = newStorage(storage);
+  }
+
+  /**
+   * Constructs a set using {@link Storage#HASH hash} storage holding the
+   * distinct values of an array.
+   *
+   * @param values the values to add (must not be null); the array is not modified
+   */
+  public IntegerSet(int[] values) {
+    this(values, Storage.HASH);
+  }
+
+  /**
+   * Constructs a set using the given storage mode holding the distinct
+   * values of an array. The set is built in one bulk step: presized for
+   * hash storage, and sorted once for bitmap and sorted storage.
+   *
+   * @param values the values to add (must not be null); the array is not modified
+   * @param storage the storage mode (must not be null)
+   */
+  public IntegerSet(int[] values, Storage storage) {
+    this(storage);
+    set.addAll(values, values.length);
+  }
+
+  /**
+   * Constructs a set using {@link Storage#HASH hash} storage holding the
+   * distinct values of a stream.
+   *
+   * @param values the values to add (must not be null)
+   */
+  public IntegerSet(IntStream values) {
+    this(values, Storage.HASH);
+  }
+
+  /**
+   * Constructs a set using the given storage mode holding the distinct
+   * values of a stream. The stream is collected into an array first and
+   * then added like {@link #IntegerSet(int[], Storage)}.
+   *
+   * @param values the values to add (must not be null)
+   * @param storage the storage mode (must not be null)
+   */
+  public IntegerSet(IntStream values, Storage storage) {
+    this(values.toArray(), storage);
+  }
+
+  private static IntSetStorage newStorage(Storage storage) {
+    switch (storage) {
+      case BITMAP:
+        return new BitmapIntStorage();
+      case SORTED:
+        return new SortedIntStorage();
+      case HASH:
+      default:
+        return new IntHashStorage();
+    }
+  }
+
+  /**
+   * Gets the storage holding this set's elements, for other set types in this package.
+   *
+   * @return the backing storage
+   */
+  IntSetStorage storage() {
+    return set;
+  }
 
   /**
    * Clears all elements from the set, making it empty.
@@ -40,8 +154,18 @@ public class IntegerSet {
     if (this == o) return true;
     if (o == null || getClass() != o.getClass()) return false;
     IntegerSet that = (IntegerSet) o;
-    if (this.set.size() != that.set.size()) return false;
-    return this.set.containsAll(that.set) && that.set.containsAll(this.set);
+    return this.set.size() == that.set.size() && this.set.containsAll(that.set);
+  }
+
+  /**
+   * Returns a hash code consistent with {@link #equals(Object)}:
+   * sets with the same elements have the same hash code.
+   *
+   * @return the sum of the elements
+   */
+  @Override
+  public int hashCode() {
+    return set.hash();
   }
 
   /**
@@ -64,7 +188,7 @@ public class IntegerSet {
     if (set.isEmpty()) {
       throw new IllegalStateException("Set is empty");
     }
-    return set.stream().mapToInt(Integer::intValue).max().orElse(Integer.MIN_VALUE);
+    return set.max();
   }
 
   /**
@@ -77,7 +201,7 @@ public class IntegerSet {
     if (set.isEmpty()) {
       throw new IllegalStateException("Set is empty");
     }
-    return set.stream().mapToInt(Integer::intValue).min().orElse(Integer.MAX_VALUE);
+    return set.min();
   }
 
   /**
@@ -87,9 +211,7 @@ public class IntegerSet {
    * @param item the integer to add
    */
   public void add(int item) {
-    if (!set.contains(item)) {
-      set.add(item);
-    }
+    set.add(item);
   }
 
   /**
@@ -99,7 +221,66 @@ public class IntegerSet {
    * @param item the integer to remove
    */
   public void remove(int item) {
-    set.remove(Integer.valueOf(item));
+    set.remove(item);
+  }
+
+  /**
+   * Adds every value of an array that is not already present.
+   *
+   * @param values the values to add (must not be null); the array is not modified
+   */
+  public void addAll(int[] values) {
+    set.addAll(values, values.length);
+  }
+
+  /**
+   * Adds every integer from {@code from} (inclusive) to {@code to} (exclusive).
+   * Bitmap storage adds whole chunks of the range at once, and sorted storage
+   * writes the range into place with a single shift of the larger elements.
+   *
+   * @param from the first integer to add
+   * @param to one past the last integer to add
+   * @throws IllegalArgumentException if {@code from > to}, or the range is
+   *         larger than hash or sorted storage can hold
+   */
+  public void addRange(int from, int to) {
+    checkRange(from, to);
+    set.addRange(from, to);
+  }
+
+  /**
+   * Removes every integer from {@code from} (inclusive) to {@code to} (exclusive).
+   * Bitmap storage removes whole chunks of the range at once, and sorted
+   * storage cuts the range out with a single shift.
+   *
+   * @param from the first integer to remove
+   * @param to one past the last integer to remove
+   * @throws IllegalArgumentException if {@code from > to}
+   */
+  public void removeRange(int from, int to) {
+    checkRange(from, to);
+    set.removeRange(from, to);
+  }
+
+  /**
+   * Checks whether the set contains every value of an array.
+   *
+   * @param values the values to search for (must not be null)
+   * @return true if every value is in the set, false otherwise
+   */
+  public boolean containsAll(int[] values) {
+    for (int value : values) {
+      if (!set.contains(value)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static void checkRange(int from, int to) {
+    if (from > to) {
+      throw new IllegalArgumentException("Range start " + from + " is after its end " + to);
+    }
   }
 
   /**
@@ -110,12 +291,8 @@ public class IntegerSet {
    * @param other the other IntegerSet to union with (must not be null)
    */
   public void union(IntegerSet other) {
-    if (other != null) {
-      for (Integer item : other.set) {
-        if (!this.set.contains(item)) {
-          this.set.add(item);
-        }
-      }
+    if (other != null && other != this) {
+      this.set.addAll(other.set);
     }
   }
 
@@ -131,13 +308,9 @@ public class IntegerSet {
       this.set.clear();
       return;
     }
-    List<Integer> toRemove = new ArrayList<>();
-    for (Integer item : this.set) {
-      if (!other.set.contains(item)) {
-        toRemove.add(item);
-      }
+    if (other != this) {
+      this.set.retainAll(other.set);
     }
-    this.set.removeAll(toRemove);
   }
 
   /**
@@ -148,17 +321,17 @@ public class IntegerSet {
    * @param other the other IntegerSet to difference with (must not be null)
    */
   public void diff(IntegerSet other) {
-    if (other != null) {
-      for (Integer item : other.set) {
-        this.set.remove(Integer.valueOf(item));
-      }
+    if (other == this) {
+      this.set.clear();
+    } else if (other != null) {
+      this.set.removeAll(other.set);
     }
   }
 
   /**
    * Performs a complement operation with respect to another set.
    * Modifies the current set to contain elements from the other set
-   * that are not in this set.
+   * that are not in this set. The set keeps its own storage mode.
    *
    * @param other the other IntegerSet to use as the universal set
    *              (must not be null)
@@ -167,13 +340,7 @@ public class IntegerSet {
     if (other == null) {
       return;
     }
-    List<Integer> complementSet = new ArrayList<>();
-    for (Integer item : other.set) {
-      if (!this.set.contains(item)) {
-        complementSet.add(item);
-      }
-    }
-    this.set = complementSet;
+    this.set = this.set.complementIn(other.set);
   }
 
   /**
@@ -197,11 +364,10 @@ public class IntegerSet {
       return "[]";
     }
     StringBuilder sb = new StringBuilder("[");
-    for (int i = 0; i < set.size(); i++) {
-      sb.append(set.get(i));
-      if (i < set.size() - 1) {
-        sb.append(", ");
-      }
+    PrimitiveIterator.OfInt it = set.iterator();
+    sb.append(it.nextInt());
+    while (it.hasNext()) {
+      sb.append(", ").append(it.nextInt());
     }
     sb.append("]");
     return sb.toString();
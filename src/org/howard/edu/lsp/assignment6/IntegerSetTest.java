@@ -4,6 +4,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -744,6 +752,498 @@ class IntegerSetTest {
     assertTrue(result.endsWith("]"));
   }
 
+  // ========== Large Set Tests ==========
+
+  @Test
+  @DisplayName("add(), remove() and contains() agree with java.util.HashSet over random operations")
+  void testRandomOperationsMatchHashSet() {
+    Random random = new Random(42);
+    Set<Integer> expected = new HashSet<>();
+    for (int i = 0; i < 200_000; i++) {
+      int value = random.nextInt(5_000) - 2_500;
+      if (random.nextInt(3) == 0) {
+        set1.remove(value);
+        expected.remove(value);
+      } else {
+        set1.add(value);
+        expected.add(value);
+      }
+    }
+    assertEquals(expected.size(), set1.length());
+    for (int value = -2_500; value < 2_500; value++) {
+      assertEquals(expected.contains(value), set1.contains(value));
+    }
+  }
+
+  @Test
+  @DisplayName("HASH: toString() keeps insertion order after removals")
+  void testHashKeepsInsertionOrderAfterRemove() {
+    set1.add(5);
+    set1.add(1);
+    set1.add(9);
+    set1.add(3);
+    set1.remove(1);
+    set1.add(7);
+    set1.add(1);
+    assertEquals("[5, 9, 3, 7, 1]", set1.toString());
+  }
+
+  @Test
+  @DisplayName("HASH: iteration order matches java.util.LinkedHashSet over random operations")
+  void testHashOrderMatchesLinkedHashSet() {
+    Random random = new Random(43);
+    Set<Integer> expected = new LinkedHashSet<>();
+    for (int i = 0; i < 100_000; i++) {
+      int value = random.nextInt(2_000);
+      // Phases of mostly removals make tombstones outnumber the elements
+      if (random.nextInt(4) < (i / 10_000 % 2 == 0 ? 1 : 3)) {
+        set1.remove(value);
+        expected.remove(value);
+      } else {
+        set1.add(value);
+        expected.add(value);
+      }
+    }
+    assertEquals(expected.toString(), set1.toString());
+    set1.removeRange(500, 1_500);
+    expected.removeIf(value -> value >= 500 && value < 1_500);
+    assertEquals(expected.toString(), set1.toString());
+  }
+
+  @Test
+  @DisplayName("set operations on large sets produce the expected elements")
+  void testLargeSetOperations() {
+    for (int i = 0; i < 300_000; i += 2) {
+      set1.add(i);
+    }
+    for (int i = 0; i < 300_000; i += 3) {
+      set2.add(i);
+    }
+
+    IntegerSet union = new IntegerSet();
+    union.union(set1);
+    union.union(set2);
+    assertEquals(200_000, union.length());
+
+    IntegerSet intersection = new IntegerSet();
+    intersection.union(set1);
+    intersection.intersect(set2);
+    assertEquals(50_000, intersection.length());
+    assertTrue(intersection.contains(6));
+    assertFalse(intersection.contains(4));
+
+    IntegerSet difference = new IntegerSet();
+    difference.union(set1);
+    difference.diff(set2);
+    assertEquals(100_000, difference.length());
+    assertTrue(difference.contains(4));
+    assertFalse(difference.contains(6));
+
+    set2.complement(set1);
+    assertEquals(difference, set2);
+    assertEquals(0, set1.smallest());
+    assertEquals(299_998, set1.largest());
+  }
+
+  @Test
+  @DisplayName("equal sets have equal hash codes")
+  void testHashCodeConsistentWithEquals() {
+    set1.add(1);
+    set1.add(-7);
+    set1.add(300);
+    set2.add(300);
+    set2.add(1);
+    set2.add(-7);
+    assertEquals(set1, set2);
+    assertEquals(set1.hashCode(), set2.hashCode());
+  }
+
+  @Test
+  @DisplayName("operations with the set itself behave like operations with a copy")
+  void testOperationsWithSelf() {
+    set1.add(1);
+    set1.add(2);
+    set1.union(set1);
+    assertEquals(2, set1.length());
+    set1.intersect(set1);
+    assertEquals(2, set1.length());
+    set1.diff(set1);
+    assertTrue(set1.isEmpty());
+  }
+
+  // ========== Bitmap Storage Tests ==========
+
+  @Test
+  @DisplayName("BITMAP: add(), remove() and contains() agree with java.util.TreeSet over random operations")
+  void testBitmapRandomOperationsMatchTreeSet() {
+    IntegerSet bitmap = new IntegerSet(IntegerSet.Storage.BITMAP);
+    Random random = new Random(7);
+    TreeSet<Integer> expected = new TreeSet<>();
+    for (int i = 0; i < 200_000; i++) {
+      // Values cluster around a few chunks, including negative ones, so containers fill and empty
+      int value = (random.nextInt(5) - 2) * 65_536 + random.nextInt(6_000);
+      if (random.nextInt(3) == 0) {
+        bitmap.remove(value);
+        expected.remove(value);
+      } else {
+        bitmap.add(value);
+        expected.add(value);
+      }
+    }
+    assertEquals(expected.size(), bitmap.length());
+    for (int value : expected) {
+      assertTrue(bitmap.contains(value));
+    }
+    assertFalse(bitmap.contains(expected.first() - 1));
+    assertEquals(expected.first().intValue(), bitmap.smallest());
+    assertEquals(expected.last().intValue(), bitmap.largest());
+  }
+
+  @Test
+  @DisplayName("BITMAP: toString() lists elements in ascending order")
+  void testBitmapToStringAscending() {
+    IntegerSet bitmap = new IntegerSet(IntegerSet.Storage.BITMAP);
+    bitmap.add(70_000);
+    bitmap.add(-5);
+    bitmap.add(3);
+    bitmap.add(Integer.MIN_VALUE);
+    bitmap.add(Integer.MAX_VALUE);
+    assertEquals("[-2147483648, -5, 3, 70000, 2147483647]", bitmap.toString());
+    assertEquals(Integer.MIN_VALUE, bitmap.smallest());
+    assertEquals(Integer.MAX_VALUE, bitmap.largest());
+  }
+
+  @Test
+  @DisplayName("BITMAP: set operations on dense ranges produce the expected elements")
+  void testBitmapDenseRangeOperations() {
+    IntegerSet evens = new IntegerSet(IntegerSet.Storage.BITMAP);
+    IntegerSet range = new IntegerSet(IntegerSet.Storage.BITMAP);
+    for (int i = 0; i < 300_000; i += 2) {
+      evens.add(i);
+    }
+    for (int i = 100_000; i < 200_000; i++) {
+      range.add(i);
+    }
+
+    IntegerSet union = new IntegerSet(IntegerSet.Storage.BITMAP);
+    union.union(evens);
+    union.union(range);
+    assertEquals(200_000, union.length());
+
+    IntegerSet intersection = new IntegerSet(IntegerSet.Storage.BITMAP);
+    intersection.union(range);
+    intersection.intersect(evens);
+    assertEquals(50_000, intersection.length());
+    assertEquals(100_000, intersection.smallest());
+    assertEquals(199_998, intersection.largest());
+
+    IntegerSet difference = new IntegerSet(IntegerSet.Storage.BITMAP);
+    difference.union(range);
+    difference.diff(evens);
+    assertEquals(50_000, difference.length());
+    assertTrue(difference.contains(100_001));
+    assertFalse(difference.contains(100_002));
+
+    range.complement(union);
+    assertEquals(100_000, range.length());
+    assertFalse(range.contains(150_000));
+    assertTrue(range.contains(200_000));
+
+    // A range left by an operation must still accept changes
+    difference.add(100_002);
+    difference.remove(100_001);
+    assertEquals(50_000, difference.length());
+    assertTrue(difference.contains(100_002));
+  }
+
+  @Test
+  @DisplayName("HASH and BITMAP sets combine and compare as equal sets")
+  void testMixedStorageOperations() {
+    IntegerSet bitmap = new IntegerSet(IntegerSet.Storage.BITMAP);
+    for (int i = -1_000; i < 1_000; i++) {
+      bitmap.add(i);
+      if (i % 3 == 0) {
+        set1.add(i);
+      }
+    }
+    set2.union(bitmap);
+    assertEquals(bitmap, set2);
+    assertEquals(set2, bitmap);
+    assertEquals(bitmap.hashCode(), set2.hashCode());
+
+    bitmap.diff(set1);
+    set2.diff(set1);
+    assertEquals(set2, bitmap);
+
+    set1.union(bitmap);
+    assertEquals(2_000, set1.length());
+
+    IntegerSet complement = new IntegerSet(IntegerSet.Storage.BITMAP);
+    complement.add(0);
+    complement.complement(set1);
+    assertEquals(1_999, complement.length());
+    assertFalse(complement.contains(0));
+    assertEquals(-1_000, complement.smallest());
+  }
+
+  @Test
+  @DisplayName("BITMAP: operations with the set itself behave like operations with a copy")
+  void testBitmapOperationsWithSelf() {
+    IntegerSet bitmap = new IntegerSet(IntegerSet.Storage.BITMAP);
+    bitmap.add(1);
+    bitmap.add(2);
+    bitmap.union(bitmap);
+    bitmap.intersect(bitmap);
+    assertEquals("[1, 2]", bitmap.toString());
+    bitmap.complement(bitmap);
+    assertTrue(bitmap.isEmpty());
+    bitmap.add(5);
+    bitmap.diff(bitmap);
+    assertTrue(bitmap.isEmpty());
+    assertThrows(IllegalStateException.class, bitmap::smallest);
+  }
+
+  // ========== Sorted Storage Tests ==========
+
+  @Test
+  @DisplayName("SORTED: add(), remove() and contains() agree with java.util.TreeSet over random operations")
+  void testSortedRandomOperationsMatchTreeSet() {
+    IntegerSet sorted = new IntegerSet(IntegerSet.Storage.SORTED);
+    Random random = new Random(11);
+    TreeSet<Integer> expected = new TreeSet<>();
+    for (int i = 0; i < 20_000; i++) {
+      int value = random.nextInt(4_000) - 2_000;
+      if (random.nextInt(3) == 0) {
+        sorted.remove(value);
+        expected.remove(value);
+      } else {
+        sorted.add(value);
+        expected.add(value);
+      }
+    }
+    assertEquals(expected.size(), sorted.length());
+    for (int value = -2_001; value <= 2_000; value++) {
+      assertEquals(expected.contains(value), sorted.contains(value));
+    }
+    assertEquals(expected.first().intValue(), sorted.smallest());
+    assertEquals(expected.last().intValue(), sorted.largest());
+  }
+
+  @Test
+  @DisplayName("SORTED: toString() lists elements in ascending order")
+  void testSortedToStringAscending() {
+    IntegerSet sorted = new IntegerSet(IntegerSet.Storage.SORTED);
+    sorted.add(70_000);
+    sorted.add(-5);
+    sorted.add(3);
+    sorted.add(Integer.MAX_VALUE);
+    sorted.add(Integer.MIN_VALUE);
+    sorted.add(3);
+    assertEquals("[-2147483648, -5, 3, 70000, 2147483647]", sorted.toString());
+    assertEquals(Integer.MIN_VALUE, sorted.smallest());
+    assertEquals(Integer.MAX_VALUE, sorted.largest());
+    sorted.remove(Integer.MAX_VALUE);
+    assertEquals(70_000, sorted.largest());
+  }
+
+  @Test
+  @DisplayName("SORTED: set operations match java.util.TreeSet for balanced and skewed sizes")
+  void testSortedSetOperationsMatchTreeSet() {
+    Random random = new Random(13);
+    int[][] sizes = {{1_000, 1_000}, {10, 5_000}, {5_000, 10}, {0, 100}, {100, 0}};
+    for (int[] size : sizes) {
+      TreeSet<Integer> left = new TreeSet<>();
+      TreeSet<Integer> right = new TreeSet<>();
+      while (left.size() < size[0]) {
+        left.add(random.nextInt(20_000));
+      }
+      while (right.size() < size[1]) {
+        right.add(random.nextInt(20_000));
+      }
+
+      TreeSet<Integer> expected = new TreeSet<>(left);
+      expected.addAll(right);
+      IntegerSet actual = sortedOf(left);
+      actual.union(sortedOf(right));
+      assertEquals(expected.toString(), actual.toString());
+
+      expected = new TreeSet<>(left);
+      expected.retainAll(right);
+      actual = sortedOf(left);
+      actual.intersect(sortedOf(right));
+      assertEquals(expected.toString(), actual.toString());
+
+      expected = new TreeSet<>(left);
+      expected.removeAll(right);
+      actual = sortedOf(left);
+      actual.diff(sortedOf(right));
+      assertEquals(expected.toString(), actual.toString());
+
+      expected = new TreeSet<>(right);
+      expected.removeAll(left);
+      actual = sortedOf(left);
+      actual.complement(sortedOf(right));
+      assertEquals(expected.toString(), actual.toString());
+    }
+  }
+
+  @Test
+  @DisplayName("SORTED sets combine with HASH and BITMAP sets and compare as equal sets")
+  void testSortedMixedStorageOperations() {
+    IntegerSet sorted = new IntegerSet(IntegerSet.Storage.SORTED);
+    IntegerSet bitmap = new IntegerSet(IntegerSet.Storage.BITMAP);
+    for (int i = 1_000; i > -1_000; i--) {
+      set1.add(i);
+      if (i % 2 == 0) {
+        bitmap.add(i);
+      }
+    }
+    sorted.union(set1);
+    assertEquals(set1, sorted);
+    assertEquals(sorted, set1);
+    assertEquals(set1.hashCode(), sorted.hashCode());
+    assertEquals(-999, sorted.smallest());
+    assertEquals(1_000, sorted.largest());
+
+    sorted.diff(bitmap);
+    assertEquals(1_000, sorted.length());
+    assertFalse(sorted.contains(0));
+    sorted.intersect(set1);
+    assertEquals(1_000, sorted.length());
+
+    bitmap.union(sorted);
+    assertEquals(set1, bitmap);
+
+    IntegerSet complement = new IntegerSet(IntegerSet.Storage.SORTED);
+    complement.add(0);
+    complement.complement(set1);
+    assertEquals(1_999, complement.length());
+    assertFalse(complement.contains(0));
+    assertEquals(-999, complement.smallest());
+  }
+
+  @Test
+  @DisplayName("SORTED: operations with the set itself behave like operations with a copy")
+  void testSortedOperationsWithSelf() {
+    IntegerSet sorted = new IntegerSet(IntegerSet.Storage.SORTED);
+    sorted.add(2);
+    sorted.add(1);
+    sorted.union(sorted);
+    sorted.intersect(sorted);
+    assertEquals("[1, 2]", sorted.toString());
+    sorted.complement(sorted);
+    assertTrue(sorted.isEmpty());
+    sorted.add(5);
+    sorted.diff(sorted);
+    assertTrue(sorted.isEmpty());
+    assertThrows(IllegalStateException.class, sorted::largest);
+  }
+
+  private static IntegerSet sortedOf(Set<Integer> values) {
+    IntegerSet set = new IntegerSet(IntegerSet.Storage.SORTED);
+    for (int value : values) {
+      set.add(value);
+    }
+    return set;
+  }
+
+  // ========== Bulk and Range Tests ==========
+
+  @Test
+  @DisplayName("Bulk constructors keep distinct values and leave the input array unchanged")
+  void testBulkConstructors() {
+    for (IntegerSet.Storage storage : IntegerSet.Storage.values()) {
+      int[] values = {5, -3, 5, 70_000, -3, Integer.MIN_VALUE};
+      IntegerSet fromArray = new IntegerSet(values, storage);
+      assertArrayEquals(new int[] {5, -3, 5, 70_000, -3, Integer.MIN_VALUE}, values);
+      assertEquals(4, fromArray.length());
+      assertEquals(Integer.MIN_VALUE, fromArray.smallest());
+      assertEquals(70_000, fromArray.largest());
+
+      IntegerSet fromStream = new IntegerSet(IntStream.of(values), storage);
+      assertEquals(fromArray, fromStream);
+      assertTrue(new IntegerSet(new int[0], storage).isEmpty());
+    }
+    assertEquals(3, new IntegerSet(IntStream.of(1, 2, 2, 3)).length());
+  }
+
+  @Test
+  @DisplayName("Bulk constructors build large sets equal to sets built one add() at a time")
+  void testBulkConstructorsMatchSingleAdds() {
+    int[] ids = new Random(17).ints(50_000, -1_000_000, 1_000_000).toArray();
+    IntegerSet expected = new IntegerSet();
+    for (int id : ids) {
+      expected.add(id);
+    }
+    for (IntegerSet.Storage storage : IntegerSet.Storage.values()) {
+      IntegerSet bulk = new IntegerSet(ids, storage);
+      assertEquals(expected.length(), bulk.length());
+      assertEquals(expected, bulk);
+      assertTrue(bulk.containsAll(ids));
+    }
+  }
+
+  @Test
+  @DisplayName("addAll(int[]), addRange() and removeRange() agree with java.util.TreeSet")
+  void testRangeOperationsMatchTreeSet() {
+    for (IntegerSet.Storage storage : IntegerSet.Storage.values()) {
+      IntegerSet set = new IntegerSet(new int[] {-70_000, 5, 100, 200_000}, storage);
+      TreeSet<Integer> expected = new TreeSet<>(List.of(-70_000, 5, 100, 200_000));
+
+      set.addRange(-100_000, 150_000);
+      for (int i = -100_000; i < 150_000; i++) {
+        expected.add(i);
+      }
+      set.removeRange(-1_000, 80_000);
+      expected.subSet(-1_000, 80_000).clear();
+      set.addAll(new int[] {0, 0, 199_999, -100_001});
+      expected.addAll(List.of(0, 199_999, -100_001));
+      set.removeRange(5, 5);
+      set.addRange(7, 7);
+
+      assertEquals(expected.size(), set.length(), storage.name());
+      assertEquals(expected.first().intValue(), set.smallest());
+      assertEquals(expected.last().intValue(), set.largest());
+      for (int value : new int[] {-100_001, -100_000, -1_001, -1_000, 0, 79_999, 80_000, 149_999, 150_000, 199_999}) {
+        assertEquals(expected.contains(value), set.contains(value), storage + " " + value);
+      }
+    }
+  }
+
+  @Test
+  @DisplayName("Range operations cover the ends of the int range")
+  void testRangeOperationsAtIntLimits() {
+    for (IntegerSet.Storage storage : IntegerSet.Storage.values()) {
+      IntegerSet set = new IntegerSet(storage);
+      set.addRange(Integer.MAX_VALUE - 3, Integer.MAX_VALUE);
+      set.add(Integer.MAX_VALUE);
+      set.addRange(Integer.MIN_VALUE, Integer.MIN_VALUE + 2);
+      assertEquals("[-2147483648, -2147483647, 2147483644, 2147483645, 2147483646, 2147483647]",
+          sortedString(set));
+      set.removeRange(Integer.MIN_VALUE, Integer.MAX_VALUE);
+      assertEquals("[2147483647]", set.toString());
+    }
+  }
+
+  @Test
+  @DisplayName("containsAll(int[]) and invalid ranges")
+  void testContainsAllAndInvalidRange() {
+    set1.addRange(1, 11);
+    assertTrue(set1.containsAll(new int[] {1, 5, 10, 5}));
+    assertFalse(set1.containsAll(new int[] {1, 11}));
+    assertTrue(set1.containsAll(new int[0]));
+    assertThrows(IllegalArgumentException.class, () -> set1.addRange(5, 4));
+    assertThrows(IllegalArgumentException.class, () -> set1.removeRange(5, 4));
+    assertThrows(IllegalArgumentException.class, () -> set1.addRange(Integer.MIN_VALUE, Integer.MAX_VALUE));
+    assertEquals(10, set1.length());
+  }
+
+  private static String sortedString(IntegerSet set) {
+    IntegerSet sorted = new IntegerSet(IntegerSet.Storage.SORTED);
+    sorted.union(set);
+    return sorted.toString();
+  }
+
   // ========== Integration Tests ==========
 
   @Test
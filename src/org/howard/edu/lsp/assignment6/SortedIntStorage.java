@@ -0,0 +1,479 @@
+package org.howard.edu.lsp.assignment6;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Primitive int storage backed by a sorted array.
+ * Membership tests are binary searches, the smallest and largest elements
+ * are the first and last entries, and iteration is ascending. Single
+ * insertions and removals shift the elements after them, so this storage
+ * suits sets that are read far more often than they are changed one
+ * element at a time.
+ *
+ * Set operations between two sorted storages are merges of the two arrays.
+ * When one side is much smaller than the other, the merge gallops through
+ * the larger side (exponential then binary search) instead of stepping
+ * through it, so the cost depends on the smaller side.
+ */
+final class SortedIntStorage implements IntSetStorage {
+  private static final int MIN_CAPACITY = 8;
+  /** Size ratio above which merges gallop through the larger side. */
+  private static final int GALLOP_RATIO = 16;
+
+  /** Ascending, without duplicates; only the first {@code size} entries are used. */
+  private int[] elements;
+  private int size;
+
+  SortedIntStorage() {
+    this(new int[MIN_CAPACITY], 0);
+  }
+
+  /**
+   * Wraps an array without copying it.
+   *
+   * @param elements ascending values without duplicates in the first {@code size} entries
+   * @param size the number of elements
+   */
+  private SortedIntStorage(int[] elements, int size) {
+    this.elements = elements;
+    this.size = size;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean contains(int value) {
+    return Arrays.binarySearch(elements, 0, size, value) >= 0;
+  }
+
+  @Override
+  public boolean add(int value) {
+    int index = size == 0 || value > elements[size - 1] ? -size - 1 : Arrays.binarySearch(elements, 0, size, value);
+    if (index >= 0) {
+      return false;
+    }
+    index = -index - 1;
+    if (size == elements.length) {
+      elements = Arrays.copyOf(elements, Math.max(MIN_CAPACITY, size * 2));
+    }
+    System.arraycopy(elements, index, elements, index + 1, size - index);
+    elements[index] = value;
+    size++;
+    return true;
+  }
+
+  @Override
+  public boolean remove(int value) {
+    int index = Arrays.binarySearch(elements, 0, size, value);
+    if (index < 0) {
+      return false;
+    }
+    System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+    size--;
+    return true;
+  }
+
+  @Override
+  public void clear() {
+    size = 0;
+  }
+
+  @Override
+  public int min() {
+    return elements[0];
+  }
+
+  @Override
+  public int max() {
+    return elements[size - 1];
+  }
+
+  /**
+   * Iterates in ascending order.
+   */
+  @Override
+  public PrimitiveIterator.OfInt iterator() {
+    return new PrimitiveIterator.OfInt() {
+      private int next;
+
+      @Override
+      public boolean hasNext() {
+        return next < size;
+      }
+
+      @Override
+      public int nextInt() {
+        if (next >= size) {
+          throw new NoSuchElementException();
+        }
+        return elements[next++];
+      }
+    };
+  }
+
+  /**
+   * Union. The other side is merged in as a sorted array, after sorting a
+   * copy of it if its storage is not sorted.
+   */
+  @Override
+  public void addAll(IntSetStorage other) {
+    int[] theirs = sortedElements(other);
+    int theirSize = other.size();
+    if (theirSize == 0) {
+      return;
+    }
+    int[] merged = new int[Math.max(MIN_CAPACITY, size + theirSize)];
+    size = union(elements, size, theirs, theirSize, merged);
+    elements = merged;
+  }
+
+  /**
+   * Sorts and dedupes a copy of the values, then merges it in.
+   */
+  @Override
+  public void addAll(int[] values, int length) {
+    if (length == 0) {
+      return;
+    }
+    int[] added = Arrays.copyOf(values, length);
+    Arrays.sort(added);
+    int addedSize = dedupeSorted(added);
+    if (size == 0) {
+      elements = added;
+      size = addedSize;
+      return;
+    }
+    int[] merged = new int[size + addedSize];
+    size = union(elements, size, added, addedSize, merged);
+    elements = merged;
+  }
+
+  /**
+   * Replaces the elements inside the range with the whole range, writing it
+   * as a sequence between the elements below and above it.
+   */
+  @Override
+  public void addRange(int from, int to) {
+    if (from == to) {
+      return;
+    }
+    if ((long) to - from > Integer.MAX_VALUE - 8) {
+      throw new IllegalArgumentException("Range too large for sorted storage");
+    }
+    int start = lowerBound(from);
+    int end = lowerBound(to);
+    int rangeSize = to - from;
+    int newSize = size - (end - start) + rangeSize;
+    int[] target = newSize <= elements.length ? elements : new int[Math.max(newSize, elements.length * 2)];
+    System.arraycopy(elements, end, target, start + rangeSize, size - end);
+    if (target != elements) {
+      System.arraycopy(elements, 0, target, 0, start);
+    }
+    for (int i = 0; i < rangeSize; i++) {
+      target[start + i] = from + i;
+    }
+    elements = target;
+    size = newSize;
+  }
+
+  /**
+   * Cuts out the elements inside the range with one array copy.
+   */
+  @Override
+  public void removeRange(int from, int to) {
+    int start = lowerBound(from);
+    int end = lowerBound(to);
+    System.arraycopy(elements, end, elements, start, size - end);
+    size -= end - start;
+  }
+
+  /**
+   * Intersection, in place. With another sorted storage this is a merge;
+   * otherwise each element is tested against the other storage.
+   */
+  @Override
+  public void retainAll(IntSetStorage other) {
+    if (!(other instanceof SortedIntStorage)) {
+      retain(other, true);
+      return;
+    }
+    SortedIntStorage that = (SortedIntStorage) other;
+    int[] theirs = that.elements;
+    int theirSize = that.size;
+    int n = 0;
+    if (isSkewed(size, theirSize)) {
+      for (int i = 0, j = 0; i < size && j < theirSize; i++) {
+        int value = elements[i];
+        j = gallop(theirs, j, theirSize, value);
+        if (j < theirSize && theirs[j] == value) {
+          elements[n++] = value;
+        }
+      }
+    } else if (isSkewed(theirSize, size)) {
+      for (int j = 0, i = 0; j < theirSize && i < size; j++) {
+        int value = theirs[j];
+        i = gallop(elements, i, size, value);
+        if (i < size && elements[i] == value) {
+          elements[n++] = value;
+          i++;
+        }
+      }
+    } else {
+      int i = 0;
+      int j = 0;
+      while (i < size && j < theirSize) {
+        int a = elements[i];
+        int b = theirs[j];
+        if (a < b) {
+          i++;
+        } else if (a > b) {
+          j++;
+        } else {
+          elements[n++] = a;
+          i++;
+          j++;
+        }
+      }
+    }
+    size = n;
+  }
+
+  /**
+   * Difference, in place. With another sorted storage this is a merge that
+   * copies the runs of kept elements; otherwise each element is tested
+   * against the other storage.
+   */
+  @Override
+  public void removeAll(IntSetStorage other) {
+    if (!(other instanceof SortedIntStorage)) {
+      retain(other, false);
+      return;
+    }
+    SortedIntStorage that = (SortedIntStorage) other;
+    int[] theirs = that.elements;
+    int theirSize = that.size;
+    int n = 0;
+    int i = 0;
+    if (isSkewed(size, theirSize)) {
+      for (int j = 0; i < size; i++) {
+        int value = elements[i];
+        j = gallop(theirs, j, theirSize, value);
+        if (j == theirSize || theirs[j] != value) {
+          elements[n++] = value;
+        }
+      }
+    } else {
+      boolean gallop = isSkewed(theirSize, size);
+      for (int j = 0; j < theirSize && i < size; j++) {
+        int value = theirs[j];
+        int end = gallop ? gallop(elements, i, size, value) : scan(elements, i, size, value);
+        System.arraycopy(elements, i, elements, n, end - i);
+        n += end - i;
+        i = end;
+        if (i < size && elements[i] == value) {
+          i++;
+        }
+      }
+      System.arraycopy(elements, i, elements, n, size - i);
+      n += size - i;
+    }
+    size = n;
+  }
+
+  @Override
+  public IntSetStorage complementIn(IntSetStorage universe) {
+    int[] values = universe instanceof SortedIntStorage
+        ? Arrays.copyOf(((SortedIntStorage) universe).elements, Math.max(MIN_CAPACITY, universe.size()))
+        : sortedElements(universe);
+    SortedIntStorage complement = new SortedIntStorage(values, universe.size());
+    complement.removeAll(this);
+    return complement;
+  }
+
+  /**
+   * Subset test. With another sorted storage this is a merge.
+   */
+  @Override
+  public boolean containsAll(IntSetStorage other) {
+    if (!(other instanceof SortedIntStorage)) {
+      return IntSetStorage.super.containsAll(other);
+    }
+    SortedIntStorage that = (SortedIntStorage) other;
+    if (that.size > size) {
+      return false;
+    }
+    for (int j = 0, i = 0; j < that.size; j++) {
+      int value = that.elements[j];
+      i = gallop(elements, i, size, value);
+      if (i == size || elements[i] != value) {
+        return false;
+      }
+      i++;
+    }
+    return true;
+  }
+
+  @Override
+  public int hash() {
+    int hash = 0;
+    for (int i = 0; i < size; i++) {
+      hash += elements[i];
+    }
+    return hash;
+  }
+
+  /**
+   * @return the index of the first element at least the value, or size if none
+   */
+  private int lowerBound(int value) {
+    int index = Arrays.binarySearch(elements, 0, size, value);
+    return index >= 0 ? index : -index - 1;
+  }
+
+  /**
+   * Keeps only the elements that are (or are not) in another storage.
+   */
+  private void retain(IntSetStorage other, boolean keepIfPresent) {
+    int n = 0;
+    for (int i = 0; i < size; i++) {
+      int value = elements[i];
+      if (other.contains(value) == keepIfPresent) {
+        elements[n++] = value;
+      }
+    }
+    size = n;
+  }
+
+  /**
+   * Returns an array whose first {@code other.size()} entries are the other
+   * storage's elements in ascending order. The array may be the other
+   * storage's own and must not be modified.
+   */
+  private static int[] sortedElements(IntSetStorage other) {
+    if (other instanceof SortedIntStorage) {
+      return ((SortedIntStorage) other).elements;
+    }
+    int[] values = new int[Math.max(MIN_CAPACITY, other.size())];
+    int n = 0;
+    for (PrimitiveIterator.OfInt it = other.iterator(); it.hasNext(); ) {
+      values[n++] = it.nextInt();
+    }
+    if (!(other instanceof BitmapIntStorage)) {
+      Arrays.sort(values, 0, n);
+    }
+    return values;
+  }
+
+  /**
+   * Merges two sorted arrays without duplicates into {@code out}.
+   *
+   * @return the number of values written
+   */
+  private static int union(int[] a, int aSize, int[] b, int bSize, int[] out) {
+    if (aSize < bSize) {
+      return union(b, bSize, a, aSize, out);
+    }
+    int i = 0;
+    int j = 0;
+    int n = 0;
+    if (isSkewed(bSize, aSize)) {
+      // Copy the run of a before each element of b in one step
+      for (; j < bSize; j++) {
+        int value = b[j];
+        int end = gallop(a, i, aSize, value);
+        System.arraycopy(a, i, out, n, end - i);
+        n += end - i;
+        i = end;
+        if (i < aSize && a[i] == value) {
+          i++;
+        }
+        out[n++] = value;
+      }
+    } else {
+      while (i < aSize && j < bSize) {
+        int x = a[i];
+        int y = b[j];
+        if (x <= y) {
+          out[n++] = x;
+          i++;
+          if (x == y) {
+            j++;
+          }
+        } else {
+          out[n++] = y;
+          j++;
+        }
+      }
+      System.arraycopy(b, j, out, n, bSize - j);
+      n += bSize - j;
+    }
+    System.arraycopy(a, i, out, n, aSize - i);
+    return n + aSize - i;
+  }
+
+  /**
+   * @return true if a side of {@code small} elements should gallop through one of {@code large}
+   */
+  private static boolean isSkewed(int small, int large) {
+    return (long) small * GALLOP_RATIO < large;
+  }
+
+  /**
+   * Finds the first index in {@code [from, to)} whose value is at least the
+   * key, probing 1, 2, 4, ... entries ahead before a binary search, so the
+   * cost grows with the log of the distance moved.
+   */
+  private static int gallop(int[] values, int from, int to, int key) {
+    int lo = from;
+    int step = 1;
+    int hi = from;
+    while (hi < to && values[hi] < key) {
+      lo = hi + 1;
+      hi += step;
+      step <<= 1;
+    }
+    hi = Math.min(hi, to);
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (values[mid] < key) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  /**
+   * Finds the first index in {@code [from, to)} whose value is at least the key, one step at a time.
+   */
+  private static int scan(int[] values, int from, int to, int key) {
+    while (from < to && values[from] < key) {
+      from++;
+    }
+    return from;
+  }
+
+  /**
+   * Removes adjacent duplicates from a sorted array in place.
+   *
+   * @return the number of distinct values now at the front
+   */
+  private static int dedupeSorted(int[] values) {
+    if (values.length == 0) {
+      return 0;
+    }
+    int n = 1;
+    for (int i = 1; i < values.length; i++) {
+      if (values[i] != values[n - 1]) {
+        values[n++] = values[i];
+      }
+    }
+    return n;
+  }
+}
@@ -0,0 +1,134 @@
+package org.howard.edu.lsp.assignment6.benchmark;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.howard.edu.lsp.assignment6.ConcurrentIntegerSet;
+import org.howard.edu.lsp.assignment6.IntegerSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how set updates and lookups scale with the number of threads.
+ * The {@code striped} implementation is {@link ConcurrentIntegerSet}; the
+ * {@code synchronized} baseline is an {@link IntegerSet} behind one lock.
+ * Run with {@code -t 1}, {@code -t 2}, {@code -t 4} and so on to get the
+ * scaling curve for the ungrouped benchmarks; the {@code mixed} group always
+ * runs three readers per writer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentIntegerSetBenchmark {
+
+  @Param({"striped", "synchronized"})
+  public String impl;
+
+  /** Values are drawn from [0, range); half of them are preloaded. */
+  @Param({"1000000"})
+  public int range;
+
+  private ConcurrentIntegerSet striped;
+  private IntegerSet plain;
+
+  @Setup(Level.Iteration)
+  public void setUp() {
+    striped = new ConcurrentIntegerSet();
+    plain = new IntegerSet();
+    for (int i = 0; i < range; i += 2) {
+      striped.add(i);
+      plain.add(i);
+    }
+  }
+
+  /** Per-thread source of values. */
+  @State(Scope.Thread)
+  public static class Values {
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      random = new SplittableRandom(Thread.currentThread().getId());
+    }
+
+    int next(int range) {
+      return random.nextInt(range);
+    }
+
+    boolean nextBoolean() {
+      return random.nextBoolean();
+    }
+  }
+
+  @Benchmark
+  public boolean contains(Values values) {
+    return contains(values.next(range));
+  }
+
+  /** Adds or removes a random value, keeping the set at about half full. */
+  @Benchmark
+  public boolean addOrRemove(Values values) {
+    int value = values.next(range);
+    return values.nextBoolean() ? add(value) : remove(value);
+  }
+
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(3)
+  public boolean mixedContains(Values values) {
+    return contains(values.next(range));
+  }
+
+  @Benchmark
+  @Group("mixed")
+  @GroupThreads(1)
+  public boolean mixedAddOrRemove(Values values) {
+    return addOrRemove(values);
+  }
+
+  private boolean contains(int value) {
+    if ("striped".equals(impl)) {
+      return striped.contains(value);
+    }
+    synchronized (plain) {
+      return plain.contains(value);
+    }
+  }
+
+  private boolean add(int value) {
+    if ("striped".equals(impl)) {
+      return striped.add(value);
+    }
+    synchronized (plain) {
+      boolean added = !plain.contains(value);
+      plain.add(value);
+      return added;
+    }
+  }
+
+  private boolean remove(int value) {
+    if ("striped".equals(impl)) {
+      return striped.remove(value);
+    }
+    synchronized (plain) {
+      boolean removed = plain.contains(value);
+      plain.remove(value);
+      return removed;
+    }
+  }
+}
@@ -0,0 +1,424 @@
+package org.howard.edu.lsp.midterm.question2;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Streams shape records from a file or an iterator and aggregates their
+ * areas into an {@link AreaSummary}: count, sum, minimum, maximum, a
+ * histogram and the k largest shapes.
+ *
+ * The calling thread reads records into batches and hands each batch to a
+ * fork-join pool. A worker splits the batch into one column per shape type,
+ * computes the areas with the bulk {@link AreaCalculator} kernels and folds
+ * them into an accumulator owned by its thread, so workers share nothing
+ * while running. The accumulators are merged once the input is exhausted.
+ *
+ * Batches come from a fixed pool that the reader waits on when every batch
+ * is in flight, so memory use depends on the batch size, the number of
+ * batches and k, but not on the size of the input.
+ *
+ * When {@code aggregate} is called from a worker thread of the aggregator's
+ * own pool, batches are aggregated on the calling thread instead: the
+ * worker would otherwise queue them on its own deque and then block waiting
+ * for them, which deadlocks a pool with no other free worker.
+ */
+public class AreaAggregator {
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+
+    /** Orders entries from the largest area down; equal areas by input position. */
+    private static final Comparator<AreaSummary.Entry> LARGEST_FIRST =
+            Comparator.comparingDouble(AreaSummary.Entry::getArea).reversed()
+                    .thenComparingLong(AreaSummary.Entry::getPosition);
+
+    private final double[] boundaries;
+    private final int topK;
+    private final ForkJoinPool pool;
+    private final int batchSize;
+    private final int maxInFlight;
+
+    /**
+     * Create an aggregator on the common fork-join pool.
+     * @param histogramBoundaries the bucket boundaries, strictly ascending
+     * @param topK the number of largest shapes to keep
+     * @throws IllegalArgumentException if the boundaries are not strictly ascending or topK < 0
+     */
+    public AreaAggregator(double[] histogramBoundaries, int topK) {
+        this(histogramBoundaries, topK, ForkJoinPool.commonPool(), DEFAULT_BATCH_SIZE,
+                2 * ForkJoinPool.commonPool().getParallelism());
+    }
+
+    /**
+     * Create an aggregator.
+     * @param histogramBoundaries the bucket boundaries, strictly ascending
+     * @param topK the number of largest shapes to keep
+     * @param pool the pool that computes and aggregates batches
+     * @param batchSize the number of records per batch
+     * @param maxInFlight the number of batches being read or aggregated at once
+     * @throws IllegalArgumentException if the boundaries are not strictly ascending,
+     *         topK < 0, or batchSize or maxInFlight < 1
+     */
+    public AreaAggregator(double[] histogramBoundaries, int topK, ForkJoinPool pool, int batchSize,
+                          int maxInFlight) {
+        for (int i = 0; i < histogramBoundaries.length; i++) {
+            if (Double.isNaN(histogramBoundaries[i])
+                    || (i > 0 && !(histogramBoundaries[i] > histogramBoundaries[i - 1]))) {
+                throw new IllegalArgumentException("Histogram boundaries must be strictly ascending");
+            }
+        }
+        if (topK < 0 || batchSize < 1 || maxInFlight < 1) {
+            throw new IllegalArgumentException("Invalid top-k, batch size or batch count");
+        }
+        this.boundaries = histogramBoundaries.clone();
+        this.topK = topK;
+        this.pool = pool;
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Aggregate the areas of the records an iterator returns.
+     * @param records the records; null elements are counted as malformed
+     * @return the summary
+     * @throws IllegalStateException if the calling thread is interrupted
+     */
+    public AreaSummary aggregate(Iterator<ShapeRecord> records) {
+        Run run = new Run(false);
+        try {
+            long position = 0;
+            while (records.hasNext() && run.failure.get() == null) {
+                Batch batch = run.take();
+                int n = 0;
+                try {
+                    while (n < batchSize && records.hasNext()) {
+                        batch.records[n++] = records.next();
+                    }
+                } catch (Throwable t) {
+                    // The batch was never submitted, so awaitAll would wait for it forever
+                    run.free.add(batch);
+                    throw t;
+                }
+                batch.start = position;
+                batch.size = n;
+                position += n;
+                run.submit(batch);
+            }
+        } finally {
+            run.awaitAll();
+        }
+        return run.summary();
+    }
+
+    /**
+     * Aggregate the areas of the records in a UTF-8 text file, one
+     * {@link ShapeRecord#parse(String) record} per line. Blank lines and
+     * lines starting with {@code #} are skipped; other lines that are not
+     * valid records are counted as malformed.
+     * @param file the file to read
+     * @return the summary
+     * @throws IOException if the file cannot be read
+     * @throws IllegalStateException if the calling thread is interrupted
+     */
+    public AreaSummary aggregate(Path file) throws IOException {
+        Run run = new Run(true);
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            long position = 0;
+            String line = reader.readLine();
+            while (line != null && run.failure.get() == null) {
+                Batch batch = run.take();
+                int n = 0;
+                try {
+                    while (n < batchSize && line != null) {
+                        batch.lines[n++] = line;
+                        line = reader.readLine();
+                    }
+                } catch (Throwable t) {
+                    // The batch was never submitted, so awaitAll would wait for it forever
+                    run.free.add(batch);
+                    throw t;
+                }
+                batch.start = position;
+                batch.size = n;
+                position += n;
+                run.submit(batch);
+            }
+        } finally {
+            run.awaitAll();
+        }
+        return run.summary();
+    }
+
+    /** A reusable block of input records or lines. */
+    private static final class Batch {
+        final ShapeRecord[] records;
+        final String[] lines;
+        long start;
+        int size;
+
+        Batch(int capacity, boolean fromLines) {
+            records = new ShapeRecord[capacity];
+            lines = fromLines ? new String[capacity] : null;
+        }
+    }
+
+    /** The state of one call to {@code aggregate}. */
+    private final class Run {
+        final BlockingQueue<Batch> free = new ArrayBlockingQueue<>(maxInFlight);
+        final Map<Thread, Accumulator> accumulators = new ConcurrentHashMap<>();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        /** Whether the caller is a worker of the pool, which must not wait on its own tasks. */
+        final boolean inline = ForkJoinTask.getPool() == pool;
+
+        Run(boolean fromLines) {
+            for (int i = 0; i < maxInFlight; i++) {
+                free.add(new Batch(batchSize, fromLines));
+            }
+        }
+
+        Batch take() {
+            try {
+                return free.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while aggregating shapes", e);
+            }
+        }
+
+        void submit(Batch batch) {
+            if (inline) {
+                process(batch);
+                return;
+            }
+            try {
+                pool.execute(() -> process(batch));
+            } catch (RuntimeException e) {
+                free.add(batch);
+                throw e;
+            }
+        }
+
+        private void process(Batch batch) {
+            try {
+                accumulators.computeIfAbsent(Thread.currentThread(), thread -> new Accumulator()).fold(batch);
+            } catch (Throwable t) {
+                failure.compareAndSet(null, t);
+            } finally {
+                free.add(batch);
+            }
+        }
+
+        /** Waits until every batch is back in the pool, even if interrupted. */
+        void awaitAll() {
+            boolean interrupted = false;
+            List<Batch> returned = new ArrayList<>(maxInFlight);
+            while (returned.size() < maxInFlight) {
+                try {
+                    returned.add(free.take());
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            free.addAll(returned);
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        AreaSummary summary() {
+            Throwable t = failure.get();
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            }
+            if (t instanceof Error) {
+                throw (Error) t;
+            }
+            if (t != null) {
+                throw new IllegalStateException("Shape aggregation failed", t);
+            }
+            Accumulator total = new Accumulator(0);
+            for (Accumulator accumulator : accumulators.values()) {
+                total.merge(accumulator);
+            }
+            return total.toSummary();
+        }
+    }
+
+    /** Statistics gathered by one worker thread, with scratch columns for its batches. */
+    private final class Accumulator {
+        long count;
+        long invalid;
+        long malformed;
+        double sum;
+        /** Neumaier compensation for {@link #sum}. */
+        double compensation;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        final long[] histogram = new long[boundaries.length + 1];
+        /** The current top k, smallest area (the next to be replaced) at the head. */
+        final PriorityQueue<AreaSummary.Entry> largest =
+                new PriorityQueue<>(Math.max(1, topK), LARGEST_FIRST.reversed());
+
+        final double[] doubles1;
+        final double[] doubles2;
+        final int[] ints1;
+        final int[] ints2;
+        final int[] indexes;
+        final double[] areas;
+        final boolean[] valid;
+
+        Accumulator() {
+            this(batchSize);
+        }
+
+        Accumulator(int capacity) {
+            doubles1 = new double[capacity];
+            doubles2 = new double[capacity];
+            ints1 = new int[capacity];
+            ints2 = new int[capacity];
+            indexes = new int[capacity];
+            areas = new double[capacity];
+            valid = new boolean[capacity];
+        }
+
+        void fold(Batch batch) {
+            ShapeRecord[] records = batch.records;
+            if (batch.lines != null) {
+                parse(batch);
+            } else {
+                for (int i = 0; i < batch.size; i++) {
+                    if (records[i] == null) {
+                        malformed++;
+                    }
+                }
+            }
+            AreaKernels kernels = AreaCalculator.kernels();
+            for (ShapeRecord.Type type : ShapeRecord.Type.values()) {
+                int n = 0;
+                for (int i = 0; i < batch.size; i++) {
+                    ShapeRecord record = records[i];
+                    if (record == null || record.getType() != type) {
+                        continue;
+                    }
+                    if (type == ShapeRecord.Type.CIRCLE || type == ShapeRecord.Type.RECTANGLE) {
+                        doubles1[n] = record.getFirstDimension();
+                        doubles2[n] = record.getSecondDimension();
+                    } else {
+                        ints1[n] = (int) record.getFirstDimension();
+                        ints2[n] = (int) record.getSecondDimension();
+                    }
+                    indexes[n++] = i;
+                }
+                if (n == 0) {
+                    continue;
+                }
+                switch (type) {
+                    case CIRCLE:
+                        kernels.circles(doubles1, 0, n, areas, valid);
+                        break;
+                    case RECTANGLE:
+                        kernels.rectangles(doubles1, doubles2, 0, n, areas, valid);
+                        break;
+                    case TRIANGLE:
+                        kernels.triangles(ints1, ints2, 0, n, areas, valid);
+                        break;
+                    default:
+                        kernels.squares(ints1, 0, n, areas, valid);
+                        break;
+                }
+                for (int j = 0; j < n; j++) {
+                    int i = indexes[j];
+                    add(valid[j], areas[j], records[i], batch.start + i);
+                }
+            }
+            Arrays.fill(records, 0, batch.size, null);
+        }
+
+        private void parse(Batch batch) {
+            for (int i = 0; i < batch.size; i++) {
+                String line = batch.lines[i].trim();
+                batch.lines[i] = null;
+                ShapeRecord record = null;
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    try {
+                        record = ShapeRecord.parse(line);
+                    } catch (IllegalArgumentException e) {
+                        malformed++;
+                    }
+                }
+                batch.records[i] = record;
+            }
+        }
+
+        private void add(boolean ok, double area, ShapeRecord record, long position) {
+            if (!ok || Double.isNaN(area)) {
+                invalid++;
+                return;
+            }
+            count++;
+            addToSum(area, 0);
+            min = Math.min(min, area);
+            max = Math.max(max, area);
+            int bucket = Arrays.binarySearch(boundaries, area);
+            histogram[bucket >= 0 ? bucket + 1 : -bucket - 1]++;
+            if (topK > 0) {
+                AreaSummary.Entry smallest = largest.peek();
+                if (largest.size() < topK) {
+                    largest.add(new AreaSummary.Entry(record, area, position));
+                } else if (area > smallest.getArea()
+                        || (area == smallest.getArea() && position < smallest.getPosition())) {
+                    largest.poll();
+                    largest.add(new AreaSummary.Entry(record, area, position));
+                }
+            }
+        }
+
+        private void addToSum(double value, double valueCompensation) {
+            double t = sum + value;
+            if (Math.abs(sum) >= Math.abs(value)) {
+                compensation += (sum - t) + value;
+            } else {
+                compensation += (value - t) + sum;
+            }
+            compensation += valueCompensation;
+            sum = t;
+        }
+
+        void merge(Accumulator other) {
+            count += other.count;
+            invalid += other.invalid;
+            malformed += other.malformed;
+            addToSum(other.sum, other.compensation);
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] += other.histogram[i];
+            }
+            largest.addAll(other.largest);
+        }
+
+        AreaSummary toSummary() {
+            List<AreaSummary.Entry> top = new ArrayList<>(largest);
+            top.sort(LARGEST_FIRST);
+            top = new ArrayList<>(top.subList(0, Math.min(topK, top.size())));
+            // An infinite area makes the compensation NaN
+            double total = Double.isFinite(sum) ? sum + compensation : sum;
+            return new AreaSummary(count, invalid, malformed, total, min, max, boundaries.clone(), histogram, top);
+        }
+    }
+}
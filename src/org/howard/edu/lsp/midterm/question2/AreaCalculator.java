@@ -3,8 +3,45 @@ package org.howard.edu.lsp.midterm.question2;
 /**
  * AreaCalculator class with overloaded methods to calculate areas of different shapes.
  * Each method throws IllegalArgumentException if any dimension is <= 0.
+ *
+ * The bulk {@code areas} overloads compute many areas of one shape per call
+ * from primitive arrays. They use the same arithmetic as the single-shape
+ * methods, but report shapes with a dimension <= 0 through a validity mask
+ * and a NaN area instead of an exception. They run on SIMD instructions when
+ * the JVM is started with {@code --add-modules jdk.incubator.vector}, and on
+ * a scalar loop otherwise.
  */
 public class AreaCalculator {
+
+    private static final AreaKernels KERNELS = loadKernels();
+
+    private static AreaKernels loadKernels() {
+        try {
+            return (AreaKernels) Class.forName(AreaCalculator.class.getPackageName() + ".VectorAreaKernels")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            // Vector API module not present
+            return new AreaKernels();
+        }
+    }
+
+    /**
+     * Get the kernels behind the bulk methods, for callers in this package
+     * that compute areas over a range of reusable buffers.
+     * @return the vector kernels if they were loaded, otherwise the scalar ones
+     */
+    static AreaKernels kernels() {
+        return KERNELS;
+    }
+
+    /**
+     * Tell whether the bulk methods use the vector API.
+     * @return true if the vector kernels were loaded
+     */
+    public static boolean isVectorized() {
+        return KERNELS.getClass() != AreaKernels.class;
+    }
     
     /**
      * Calculate the area of a circle.
@@ -59,4 +96,74 @@ public class AreaCalculator {
         }
         return side * side;
     }
+
+    /**
+     * Calculate the areas of many circles.
+     * @param radii the radius of each circle
+     * @param areas receives the area of each circle, or NaN if its radius is <= 0
+     * @param valid receives whether each circle's radius is > 0
+     * @return the number of valid circles
+     * @throws IllegalArgumentException if an output array is shorter than the input
+     */
+    public static int areas(double[] radii, double[] areas, boolean[] valid) {
+        checkOutputs(radii.length, areas, valid);
+        return KERNELS.circles(radii, 0, radii.length, areas, valid);
+    }
+
+    /**
+     * Calculate the areas of many rectangles.
+     * @param widths the width of each rectangle
+     * @param heights the height of each rectangle, in the same order
+     * @param areas receives the area of each rectangle, or NaN if a dimension is <= 0
+     * @param valid receives whether each rectangle's width and height are > 0
+     * @return the number of valid rectangles
+     * @throws IllegalArgumentException if the inputs differ in length or an output
+     *         array is shorter than them
+     */
+    public static int areas(double[] widths, double[] heights, double[] areas, boolean[] valid) {
+        checkPairs(widths.length, heights.length);
+        checkOutputs(widths.length, areas, valid);
+        return KERNELS.rectangles(widths, heights, 0, widths.length, areas, valid);
+    }
+
+    /**
+     * Calculate the areas of many triangles.
+     * @param bases the base of each triangle
+     * @param heights the height of each triangle, in the same order
+     * @param areas receives the area of each triangle, or NaN if a dimension is <= 0
+     * @param valid receives whether each triangle's base and height are > 0
+     * @return the number of valid triangles
+     * @throws IllegalArgumentException if the inputs differ in length or an output
+     *         array is shorter than them
+     */
+    public static int areas(int[] bases, int[] heights, double[] areas, boolean[] valid) {
+        checkPairs(bases.length, heights.length);
+        checkOutputs(bases.length, areas, valid);
+        return KERNELS.triangles(bases, heights, 0, bases.length, areas, valid);
+    }
+
+    /**
+     * Calculate the areas of many squares.
+     * @param sides the side length of each square
+     * @param areas receives the area of each square, or NaN if its side is <= 0
+     * @param valid receives whether each square's side is > 0
+     * @return the number of valid squares
+     * @throws IllegalArgumentException if an output array is shorter than the input
+     */
+    public static int areas(int[] sides, double[] areas, boolean[] valid) {
+        checkOutputs(sides.length, areas, valid);
+        return KERNELS.squares(sides, 0, sides.length, areas, valid);
+    }
+
+    private static void checkPairs(int first, int second) {
+        if (first != second) {
+            throw new IllegalArgumentException("Dimension arrays must have the same length");
+        }
+    }
+
+    private static void checkOutputs(int length, double[] areas, boolean[] valid) {
+        if (areas.length < length || valid.length < length) {
+            throw new IllegalArgumentException("Output arrays must hold one entry per shape");
+        }
+    }
 }
@@ -0,0 +1,72 @@
+package org.howard.edu.lsp.midterm.question2;
+
+/**
+ * Scalar bulk area kernels. Each method computes the areas of the shapes in
+ * {@code [from, to)} with the same arithmetic as the matching
+ * {@link AreaCalculator} overload, writes {@code NaN} for shapes with a
+ * dimension &lt;= 0 and records which shapes were valid.
+ */
+class AreaKernels {
+
+    /**
+     * @return the number of valid circles in the range
+     */
+    int circles(double[] radii, int from, int to, double[] areas, boolean[] valid) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            double radius = radii[i];
+            boolean ok = !(radius <= 0);
+            areas[i] = ok ? Math.PI * radius * radius : Double.NaN;
+            valid[i] = ok;
+            count += ok ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of valid rectangles in the range
+     */
+    int rectangles(double[] widths, double[] heights, int from, int to, double[] areas, boolean[] valid) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            double width = widths[i];
+            double height = heights[i];
+            boolean ok = !(width <= 0 || height <= 0);
+            areas[i] = ok ? width * height : Double.NaN;
+            valid[i] = ok;
+            count += ok ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of valid triangles in the range
+     */
+    int triangles(int[] bases, int[] heights, int from, int to, double[] areas, boolean[] valid) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            int base = bases[i];
+            int height = heights[i];
+            boolean ok = base > 0 && height > 0;
+            areas[i] = ok ? 0.5 * base * height : Double.NaN;
+            valid[i] = ok;
+            count += ok ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of valid squares in the range
+     */
+    int squares(int[] sides, int from, int to, double[] areas, boolean[] valid) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            int side = sides[i];
+            boolean ok = side > 0;
+            areas[i] = ok ? side * side : Double.NaN;
+            valid[i] = ok;
+            count += ok ? 1 : 0;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,152 @@
+package org.howard.edu.lsp.midterm.question2;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Aggregate statistics over the areas of a stream of shapes, produced by
+ * {@link AreaAggregator}. Only valid shapes (every dimension > 0 and a
+ * numeric area) contribute to the count, sum, extremes, histogram and
+ * top-k list; the others are only counted.
+ */
+public final class AreaSummary {
+    private final long count;
+    private final long invalidCount;
+    private final long malformedCount;
+    private final double sum;
+    private final double min;
+    private final double max;
+    private final double[] boundaries;
+    private final long[] histogram;
+    private final List<Entry> largest;
+
+    AreaSummary(long count, long invalidCount, long malformedCount, double sum, double min, double max,
+                double[] boundaries, long[] histogram, List<Entry> largest) {
+        this.count = count;
+        this.invalidCount = invalidCount;
+        this.malformedCount = malformedCount;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+        this.boundaries = boundaries;
+        this.histogram = histogram;
+        this.largest = Collections.unmodifiableList(largest);
+    }
+
+    /**
+     * @return the number of valid shapes
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the number of shapes with a dimension <= 0 or a NaN area
+     */
+    public long getInvalidCount() {
+        return invalidCount;
+    }
+
+    /**
+     * @return the number of input lines that were not valid records
+     */
+    public long getMalformedCount() {
+        return malformedCount;
+    }
+
+    /**
+     * Get the total area. It is summed with compensation per thread, so it can
+     * differ from a sequential sum in the last bits.
+     * @return the sum of all valid areas
+     */
+    public double getSum() {
+        return sum;
+    }
+
+    /**
+     * @return the mean area, or NaN if there were no valid shapes
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    /**
+     * @return the smallest area, or NaN if there were no valid shapes
+     */
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    /**
+     * @return the largest area, or NaN if there were no valid shapes
+     */
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * @return a copy of the histogram bucket boundaries, in ascending order
+     */
+    public double[] getHistogramBoundaries() {
+        return boundaries.clone();
+    }
+
+    /**
+     * Get the histogram. Bucket {@code i} counts the areas in
+     * {@code [boundaries[i - 1], boundaries[i])}; the first bucket has no
+     * lower bound and the last no upper bound.
+     * @return a copy of the bucket counts, one more than there are boundaries
+     */
+    public long[] getHistogram() {
+        return histogram.clone();
+    }
+
+    /**
+     * Get the shapes with the largest areas. Equal areas are ordered by input position.
+     * @return at most k entries, largest area first
+     */
+    public List<Entry> getLargest() {
+        return largest;
+    }
+
+    @Override
+    public String toString() {
+        return "AreaSummary{count=" + count + ", invalid=" + invalidCount + ", malformed=" + malformedCount
+                + ", sum=" + sum + ", min=" + getMin() + ", max=" + getMax()
+                + ", histogram=" + Arrays.toString(histogram) + ", largest=" + largest + "}";
+    }
+
+    /** A shape, its area and its position in the input. */
+    public static final class Entry {
+        private final ShapeRecord record;
+        private final double area;
+        private final long position;
+
+        Entry(ShapeRecord record, double area, long position) {
+            this.record = record;
+            this.area = area;
+            this.position = position;
+        }
+
+        public ShapeRecord getRecord() {
+            return record;
+        }
+
+        public double getArea() {
+            return area;
+        }
+
+        /**
+         * @return the 0-based index of the record from an iterator, or its 0-based line number in a file
+         */
+        public long getPosition() {
+            return position;
+        }
+
+        @Override
+        public String toString() {
+            return "#" + position + " " + record + " = " + area;
+        }
+    }
+}
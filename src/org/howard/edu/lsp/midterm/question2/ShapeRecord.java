@@ -0,0 +1,169 @@
+package org.howard.edu.lsp.midterm.question2;
+
+import java.util.Locale;
+
+/**
+ * One shape read for aggregation: its type and its dimensions, in the same
+ * units and types that the matching {@link AreaCalculator} overload takes.
+ *
+ * The text form of a record is one line of {@code TYPE,dimension[,dimension]},
+ * for example {@code CIRCLE,3.0}, {@code RECTANGLE,5.0,2.0},
+ * {@code TRIANGLE,10,6} or {@code SQUARE,4}. The type is case-insensitive and
+ * triangle and square dimensions must be integers.
+ */
+public final class ShapeRecord {
+
+    /** The shapes {@link AreaCalculator} supports. */
+    public enum Type {
+        CIRCLE, RECTANGLE, TRIANGLE, SQUARE
+    }
+
+    private final Type type;
+    private final double first;
+    private final double second;
+
+    private ShapeRecord(Type type, double first, double second) {
+        this.type = type;
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * Create a circle record.
+     * @param radius the radius of the circle
+     * @return the record
+     */
+    public static ShapeRecord circle(double radius) {
+        return new ShapeRecord(Type.CIRCLE, radius, 0);
+    }
+
+    /**
+     * Create a rectangle record.
+     * @param width the width of the rectangle
+     * @param height the height of the rectangle
+     * @return the record
+     */
+    public static ShapeRecord rectangle(double width, double height) {
+        return new ShapeRecord(Type.RECTANGLE, width, height);
+    }
+
+    /**
+     * Create a triangle record.
+     * @param base the base of the triangle
+     * @param height the height of the triangle
+     * @return the record
+     */
+    public static ShapeRecord triangle(int base, int height) {
+        return new ShapeRecord(Type.TRIANGLE, base, height);
+    }
+
+    /**
+     * Create a square record.
+     * @param side the side length of the square
+     * @return the record
+     */
+    public static ShapeRecord square(int side) {
+        return new ShapeRecord(Type.SQUARE, side, 0);
+    }
+
+    /**
+     * Parse a record from its text form.
+     * @param line the record text, for example {@code RECTANGLE,5.0,2.0}
+     * @return the record
+     * @throws IllegalArgumentException if the line is not a valid record
+     */
+    public static ShapeRecord parse(String line) {
+        String[] fields = line.split(",", -1);
+        Type type;
+        try {
+            type = Type.valueOf(fields[0].trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown shape type: " + fields[0].trim());
+        }
+        int expected = type == Type.CIRCLE || type == Type.SQUARE ? 2 : 3;
+        if (fields.length != expected) {
+            throw new IllegalArgumentException("Expected " + (expected - 1) + " dimension(s) for " + type);
+        }
+        switch (type) {
+            case CIRCLE:
+                return circle(Double.parseDouble(fields[1].trim()));
+            case RECTANGLE:
+                return rectangle(Double.parseDouble(fields[1].trim()), Double.parseDouble(fields[2].trim()));
+            case TRIANGLE:
+                return triangle(Integer.parseInt(fields[1].trim()), Integer.parseInt(fields[2].trim()));
+            default:
+                return square(Integer.parseInt(fields[1].trim()));
+        }
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Get the first dimension: the radius, width, base or side.
+     * @return the first dimension
+     */
+    public double getFirstDimension() {
+        return first;
+    }
+
+    /**
+     * Get the second dimension: the height of a rectangle or triangle.
+     * @return the second dimension, or 0 for circles and squares
+     */
+    public double getSecondDimension() {
+        return second;
+    }
+
+    /**
+     * Calculate the area with the matching {@link AreaCalculator} overload.
+     * @return the area of the shape
+     * @throws IllegalArgumentException if any dimension is <= 0
+     */
+    public double area() {
+        switch (type) {
+            case CIRCLE:
+                return AreaCalculator.area(first);
+            case RECTANGLE:
+                return AreaCalculator.area(first, second);
+            case TRIANGLE:
+                return AreaCalculator.area((int) first, (int) second);
+            default:
+                return AreaCalculator.area((int) first);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof ShapeRecord)) {
+            return false;
+        }
+        ShapeRecord other = (ShapeRecord) o;
+        return type == other.type
+                && Double.compare(first, other.first) == 0
+                && Double.compare(second, other.second) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * type.hashCode() + Double.hashCode(first)) + Double.hashCode(second);
+    }
+
+    /**
+     * @return the record's text form
+     */
+    @Override
+    public String toString() {
+        switch (type) {
+            case CIRCLE:
+                return type + "," + first;
+            case RECTANGLE:
+                return type + "," + first + "," + second;
+            case TRIANGLE:
+                return type + "," + (int) first + "," + (int) second;
+            default:
+                return type + "," + (int) first;
+        }
+    }
+}
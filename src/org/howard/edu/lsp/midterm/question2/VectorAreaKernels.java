@@ -0,0 +1,99 @@
+package org.howard.edu.lsp.midterm.question2;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Bulk area kernels using the {@code jdk.incubator.vector} API. Whole vectors
+ * are processed with SIMD instructions and the remaining tail with the scalar
+ * kernels. Lane-wise multiplication rounds exactly like scalar multiplication,
+ * so results are identical to {@link AreaKernels}.
+ *
+ * This class is only loaded, reflectively, by {@link AreaCalculator}; it
+ * fails to initialize when the JVM was started without
+ * {@code --add-modules jdk.incubator.vector}, and the scalar kernels are used.
+ */
+final class VectorAreaKernels extends AreaKernels {
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    /**
+     * Int species with as many lanes as {@link #DOUBLES}, for widening int
+     * dimensions. Masks are computed on the widened values because casting
+     * an int mask to a double mask is slow on common hardware.
+     */
+    private static final VectorSpecies<Integer> INTS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+    private static final DoubleVector NAN = DoubleVector.broadcast(DOUBLES, Double.NaN);
+
+    @Override
+    int circles(double[] radii, int from, int to, double[] areas, boolean[] valid) {
+        int count = 0;
+        int i = from;
+        for (int bound = from + DOUBLES.loopBound(to - from); i < bound; i += DOUBLES.length()) {
+            DoubleVector radius = DoubleVector.fromArray(DOUBLES, radii, i);
+            VectorMask<Double> invalid = radius.compare(VectorOperators.LE, 0.0);
+            radius.mul(Math.PI).mul(radius).blend(NAN, invalid).intoArray(areas, i);
+            VectorMask<Double> ok = invalid.not();
+            ok.intoArray(valid, i);
+            count += ok.trueCount();
+        }
+        return count + super.circles(radii, i, to, areas, valid);
+    }
+
+    @Override
+    int rectangles(double[] widths, double[] heights, int from, int to, double[] areas, boolean[] valid) {
+        int count = 0;
+        int i = from;
+        for (int bound = from + DOUBLES.loopBound(to - from); i < bound; i += DOUBLES.length()) {
+            DoubleVector width = DoubleVector.fromArray(DOUBLES, widths, i);
+            DoubleVector height = DoubleVector.fromArray(DOUBLES, heights, i);
+            VectorMask<Double> invalid = width.compare(VectorOperators.LE, 0.0)
+                    .or(height.compare(VectorOperators.LE, 0.0));
+            width.mul(height).blend(NAN, invalid).intoArray(areas, i);
+            VectorMask<Double> ok = invalid.not();
+            ok.intoArray(valid, i);
+            count += ok.trueCount();
+        }
+        return count + super.rectangles(widths, heights, i, to, areas, valid);
+    }
+
+    @Override
+    int triangles(int[] bases, int[] heights, int from, int to, double[] areas, boolean[] valid) {
+        int count = 0;
+        int i = from;
+        for (int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length()) {
+            DoubleVector base = toDoubles(IntVector.fromArray(INTS, bases, i));
+            DoubleVector height = toDoubles(IntVector.fromArray(INTS, heights, i));
+            VectorMask<Double> invalid = base.compare(VectorOperators.LE, 0.0)
+                    .or(height.compare(VectorOperators.LE, 0.0));
+            base.mul(0.5).mul(height).blend(NAN, invalid).intoArray(areas, i);
+            VectorMask<Double> ok = invalid.not();
+            ok.intoArray(valid, i);
+            count += ok.trueCount();
+        }
+        return count + super.triangles(bases, heights, i, to, areas, valid);
+    }
+
+    @Override
+    int squares(int[] sides, int from, int to, double[] areas, boolean[] valid) {
+        int count = 0;
+        int i = from;
+        for (int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length()) {
+            IntVector side = IntVector.fromArray(INTS, sides, i);
+            VectorMask<Double> invalid = toDoubles(side).compare(VectorOperators.LE, 0.0);
+            // int product first, overflowing like the scalar overload, then widened
+            toDoubles(side.mul(side)).blend(NAN, invalid).intoArray(areas, i);
+            VectorMask<Double> ok = invalid.not();
+            ok.intoArray(valid, i);
+            count += ok.trueCount();
+        }
+        return count + super.squares(sides, i, to, areas, valid);
+    }
+
+    private static DoubleVector toDoubles(IntVector v) {
+        return (DoubleVector) v.convertShape(VectorOperators.I2D, DOUBLES, 0);
+    }
+}
@@ -0,0 +1,88 @@
+package org.howard.edu.lsp.midterm.question2.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.howard.edu.lsp.midterm.question2.AreaCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares computing a batch of areas one call at a time with the bulk
+ * {@code AreaCalculator.areas} overloads. One dimension in a hundred is
+ * invalid, so the per-shape loop also pays for the occasional exception.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Benchmark)
+public class AreaCalculatorBenchmark {
+
+    @Param({"1024", "1048576"})
+    public int size;
+
+    private double[] radii;
+    private int[] sides;
+    private double[] areas;
+    private boolean[] valid;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        radii = new double[size];
+        sides = new int[size];
+        for (int i = 0; i < size; i++) {
+            boolean invalid = random.nextInt(100) == 0;
+            radii[i] = invalid ? -1.0 : random.nextDouble() * 100;
+            sides[i] = invalid ? 0 : 1 + random.nextInt(10_000);
+        }
+        areas = new double[size];
+        valid = new boolean[size];
+    }
+
+    @Benchmark
+    public double[] circlesOneByOne() {
+        for (int i = 0; i < size; i++) {
+            try {
+                areas[i] = AreaCalculator.area(radii[i]);
+            } catch (IllegalArgumentException e) {
+                areas[i] = Double.NaN;
+            }
+        }
+        return areas;
+    }
+
+    @Benchmark
+    public int circlesBulk() {
+        return AreaCalculator.areas(radii, areas, valid);
+    }
+
+    @Benchmark
+    public double[] squaresOneByOne() {
+        for (int i = 0; i < size; i++) {
+            try {
+                areas[i] = AreaCalculator.area(sides[i]);
+            } catch (IllegalArgumentException e) {
+                areas[i] = Double.NaN;
+            }
+        }
+        return areas;
+    }
+
+    @Benchmark
+    public int squaresBulk() {
+        return AreaCalculator.areas(sides, areas, valid);
+    }
+}
@@ -0,0 +1,280 @@
+package org.howard.edu.lsp.midterm.question4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Append-only history of battery readings for {@link BatteryPowered} devices.
+ * Each device has its own series stored column-wise in primitive arrays: an
+ * {@code int[]} of timestamps, each an offset in seconds from the series'
+ * first reading, and a {@code byte[]} of percentages. A reading therefore
+ * costs 5 bytes, and time ranges are found by binary search.
+ *
+ * Tracked devices append a reading every time their battery percentage is set.
+ * Readings within a series must not go back in time; a tracked device whose
+ * clock reading is earlier than its last one is recorded at the last time.
+ */
+public class BatteryTelemetryStore implements DeviceStateListener {
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final ConcurrentMap<String, Series> series = new ConcurrentHashMap<>();
+  private final LongSupplier clock;
+
+  /**
+   * Creates a store that timestamps tracked readings with the system clock.
+   */
+  public BatteryTelemetryStore() {
+    this(() -> System.currentTimeMillis() / 1000);
+  }
+
+  /**
+   * @param clock supplies the epoch seconds recorded for tracked devices' readings
+   */
+  public BatteryTelemetryStore(LongSupplier clock) {
+    this.clock = clock;
+  }
+
+  /**
+   * Records every future battery reading of a device, starting with its current one.
+   */
+  public <T extends Device & BatteryPowered> void track(T device) {
+    device.addStateListener(this);
+    batteryChanged(device, device.getBatteryPercent());
+  }
+
+  /**
+   * Stops recording a device's readings. Its history is kept.
+   */
+  public void untrack(Device device) {
+    device.removeStateListener(this);
+  }
+
+  @Override
+  public void connectionChanged(Device device, boolean connected) {
+  }
+
+  @Override
+  public void batteryChanged(Device device, int percent) {
+    seriesFor(device.getId()).append(clock.getAsLong(), percent, true);
+  }
+
+  /**
+   * Appends a reading.
+   *
+   * @throws IllegalArgumentException if the percentage is outside 0..100 or the
+   *     time is earlier than the device's last reading
+   */
+  public void append(String deviceId, long epochSeconds, int percent) {
+    seriesFor(deviceId).append(epochSeconds, percent, false);
+  }
+
+  public int readingCount(String deviceId) {
+    Series s = series.get(deviceId);
+    return s == null ? 0 : s.size();
+  }
+
+  /**
+   * @return the device ids with at least one reading
+   */
+  public List<String> deviceIds() {
+    return new ArrayList<>(series.keySet());
+  }
+
+  /**
+   * Passes a device's readings in {@code [from, to)} to a consumer, oldest first.
+   *
+   * @return the number of readings passed
+   */
+  public int scan(String deviceId, long from, long to, ReadingConsumer consumer) {
+    Series s = series.get(deviceId);
+    return s == null ? 0 : s.scan(from, to, consumer);
+  }
+
+  /**
+   * Summarizes a device's readings in {@code [from, to)} per bucket of
+   * {@code bucketSeconds}, counting buckets from {@code from}. Empty buckets
+   * are left out.
+   */
+  public Downsampled downsample(String deviceId, long from, long to, long bucketSeconds) {
+    if (bucketSeconds <= 0) {
+      throw new IllegalArgumentException("Invalid bucket size");
+    }
+    Downsampled result = new Downsampled();
+    scan(deviceId, from, to, (epochSeconds, percent) ->
+        result.add(from + (epochSeconds - from) / bucketSeconds * bucketSeconds, percent));
+    return result;
+  }
+
+  /**
+   * Finds devices that reported a battery percentage below a threshold at or
+   * after the given time. Each series is checked from its newest reading
+   * backwards, and series with no reading since then are skipped after one
+   * comparison.
+   *
+   * @param percent the exclusive threshold
+   * @param sinceEpochSeconds the start of the window, for example now minus N hours
+   * @return the matching device ids
+   */
+  public List<String> devicesBelow(int percent, long sinceEpochSeconds) {
+    List<String> result = new ArrayList<>();
+    for (Series s : series.values()) {
+      if (s.anyBelowSince(percent, sinceEpochSeconds)) {
+        result.add(s.deviceId);
+      }
+    }
+    return result;
+  }
+
+  private Series seriesFor(String deviceId) {
+    return series.computeIfAbsent(deviceId, Series::new);
+  }
+
+  /** Receives readings from {@link #scan}. */
+  public interface ReadingConsumer {
+    void accept(long epochSeconds, int percent);
+  }
+
+  /** Per-bucket minimum, maximum and mean of downsampled readings, in time order. */
+  public static class Downsampled {
+    private long[] bucketStarts = new long[INITIAL_CAPACITY];
+    private int[] min = new int[INITIAL_CAPACITY];
+    private int[] max = new int[INITIAL_CAPACITY];
+    private long[] sum = new long[INITIAL_CAPACITY];
+    private int[] count = new int[INITIAL_CAPACITY];
+    private int size;
+
+    private void add(long bucketStart, int percent) {
+      if (size == 0 || bucketStarts[size - 1] != bucketStart) {
+        if (size == bucketStarts.length) {
+          int capacity = size * 2;
+          bucketStarts = Arrays.copyOf(bucketStarts, capacity);
+          min = Arrays.copyOf(min, capacity);
+          max = Arrays.copyOf(max, capacity);
+          sum = Arrays.copyOf(sum, capacity);
+          count = Arrays.copyOf(count, capacity);
+        }
+        bucketStarts[size] = bucketStart;
+        min[size] = percent;
+        max[size] = percent;
+        size++;
+      }
+      int i = size - 1;
+      min[i] = Math.min(min[i], percent);
+      max[i] = Math.max(max[i], percent);
+      sum[i] += percent;
+      count[i]++;
+    }
+
+    public int size() {
+      return size;
+    }
+
+    public long getBucketStart(int bucket) {
+      return bucketStarts[bucket];
+    }
+
+    public int getMin(int bucket) {
+      return min[bucket];
+    }
+
+    public int getMax(int bucket) {
+      return max[bucket];
+    }
+
+    public double getMean(int bucket) {
+      return (double) sum[bucket] / count[bucket];
+    }
+
+    public int getCount(int bucket) {
+      return count[bucket];
+    }
+  }
+
+  /** One device's readings; guarded by its own monitor. */
+  private static final class Series {
+    final String deviceId;
+    private long base;
+    private int[] offsets = new int[INITIAL_CAPACITY];
+    private byte[] percents = new byte[INITIAL_CAPACITY];
+    private int size;
+
+    Series(String deviceId) {
+      this.deviceId = deviceId;
+    }
+
+    synchronized int size() {
+      return size;
+    }
+
+    synchronized void append(long epochSeconds, int percent, boolean clampToLast) {
+      if (percent < 0 || percent > 100) {
+        throw new IllegalArgumentException("battery 0..100");
+      }
+      if (size == 0) {
+        base = epochSeconds;
+      }
+      long offset = epochSeconds - base;
+      if (size > 0 && offset < offsets[size - 1]) {
+        if (!clampToLast) {
+          throw new IllegalArgumentException("Reading for " + deviceId + " is older than the last one");
+        }
+        offset = offsets[size - 1];
+      }
+      if (offset > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Reading for " + deviceId + " is too far from the first one");
+      }
+      if (size == offsets.length) {
+        offsets = Arrays.copyOf(offsets, size * 2);
+        percents = Arrays.copyOf(percents, size * 2);
+      }
+      offsets[size] = (int) offset;
+      percents[size] = (byte) percent;
+      size++;
+    }
+
+    synchronized int scan(long from, long to, ReadingConsumer consumer) {
+      int start = lowerBound(from);
+      int end = lowerBound(to);
+      for (int i = start; i < end; i++) {
+        consumer.accept(base + offsets[i], percents[i]);
+      }
+      return Math.max(0, end - start);
+    }
+
+    synchronized boolean anyBelowSince(int percent, long since) {
+      long sinceOffset = since - base;
+      for (int i = size - 1; i >= 0 && offsets[i] >= sinceOffset; i--) {
+        if (percents[i] < percent) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    /** Index of the first reading at or after the time. */
+    private int lowerBound(long epochSeconds) {
+      long target = epochSeconds - base;
+      if (target <= 0) {
+        return 0;
+      }
+      if (target > Integer.MAX_VALUE) {
+        return size;
+      }
+      int lo = 0;
+      int hi = size;
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        if (offsets[mid] < target) {
+          lo = mid + 1;
+        } else {
+          hi = mid;
+        }
+      }
+      return lo;
+    }
+  }
+}
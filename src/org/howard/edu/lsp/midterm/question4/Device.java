@@ -1,10 +1,27 @@
 package org.howard.edu.lsp.midterm.question4;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
 public abstract class Device {
+  private static final DeviceStateListener[] NO_LISTENERS = {};
+  private static final AtomicIntegerFieldUpdater<Device> STATUS_VERSION =
+      AtomicIntegerFieldUpdater.newUpdater(Device.class, "statusVersion");
+
   private String id;
   private String location;
   private long lastHeartbeatEpochSeconds;
-  private boolean connected;
+  private volatile boolean connected;
+  // Copy-on-write, so firing events never takes a lock
+  private volatile DeviceStateListener[] listeners = NO_LISTENERS;
+  // When bound, heartbeats live in the table instead of lastHeartbeatEpochSeconds
+  private volatile HeartbeatTable heartbeatTable;
+  private int heartbeatSlot;
+  // Bumped on every state change shown in the status; a cached status is valid
+  // only while its version matches
+  private volatile int statusVersion;
+  private volatile StatusCache statusCache;
 
   // PROVIDED CONSTRUCTOR
   public Device(String id, String location) {
@@ -28,7 +45,8 @@ public abstract class Device {
 
 
   public long getLastHeartbeatEpochSeconds() {
-    return lastHeartbeatEpochSeconds;
+    HeartbeatTable table = heartbeatTable;
+    return table != null ? table.get(heartbeatSlot) : lastHeartbeatEpochSeconds;
   }
 
   public boolean isConnected() {
@@ -36,12 +54,137 @@ public abstract class Device {
   }
 
   protected void setConnected(boolean connected) {
-    this.connected = connected;
+    synchronized (this) {
+      if (this.connected == connected) {
+        return;
+      }
+      this.connected = connected;
+    }
+    invalidateStatus();
+    for (DeviceStateListener listener : listeners) {
+      listener.connectionChanged(this, connected);
+    }
+  }
+
+  public synchronized void addStateListener(DeviceStateListener listener) {
+    if (listener == null) {
+      throw new IllegalArgumentException("Invalid listener");
+    }
+    DeviceStateListener[] current = listeners;
+    DeviceStateListener[] updated = Arrays.copyOf(current, current.length + 1);
+    updated[current.length] = listener;
+    listeners = updated;
+  }
+
+  public synchronized void removeStateListener(DeviceStateListener listener) {
+    DeviceStateListener[] current = listeners;
+    for (int i = 0; i < current.length; i++) {
+      if (current[i] == listener) {
+        DeviceStateListener[] updated = new DeviceStateListener[current.length - 1];
+        System.arraycopy(current, 0, updated, 0, i);
+        System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+        listeners = updated;
+        return;
+      }
+    }
   }
 
   public void heartbeat() {
-    this.lastHeartbeatEpochSeconds = System.currentTimeMillis() / 1000;
+    long now = System.currentTimeMillis() / 1000;
+    HeartbeatTable table = heartbeatTable;
+    if (table != null) {
+      table.record(heartbeatSlot, now);
+    } else {
+      this.lastHeartbeatEpochSeconds = now;
+    }
+    fireHeartbeat(now);
+  }
+
+  void fireHeartbeat(long epochSeconds) {
+    for (DeviceStateListener listener : listeners) {
+      listener.heartbeatReceived(this, epochSeconds);
+    }
+  }
+
+  protected void fireBatteryChanged(int percent) {
+    for (DeviceStateListener listener : listeners) {
+      listener.batteryChanged(this, percent);
+    }
+  }
+
+  synchronized void bindHeartbeatTable(HeartbeatTable table, int slot) {
+    if (heartbeatTable != null) {
+      throw new IllegalStateException("Device " + id + " is already bound to a heartbeat table");
+    }
+    this.heartbeatSlot = slot;
+    this.heartbeatTable = table;
+  }
+
+  /**
+   * Returns the device's status line. The line is rendered once and cached
+   * until the device's state changes.
+   */
+  public String getStatus() {
+    return status().text;
+  }
+
+  /**
+   * Appends the status line to a builder without creating a new String when
+   * the status is cached.
+   */
+  public void appendStatus(StringBuilder out) {
+    out.append(status().text);
+  }
+
+  /**
+   * Returns the status line encoded as UTF-8, cached alongside the text.
+   * Callers must not modify the array.
+   */
+  byte[] statusBytes() {
+    StatusCache cache = status();
+    byte[] bytes = cache.utf8;
+    if (bytes == null) {
+      // Benign race: concurrent callers encode the same text
+      bytes = cache.text.getBytes(StandardCharsets.UTF_8);
+      cache.utf8 = bytes;
+    }
+    return bytes;
   }
 
-  public abstract String getStatus();
+  /**
+   * Subclasses call this after changing any state that appears in their status.
+   */
+  protected void invalidateStatus() {
+    STATUS_VERSION.incrementAndGet(this);
+  }
+
+  /**
+   * Renders the status line into a builder.
+   */
+  protected abstract void renderStatus(StringBuilder out);
+
+  private StatusCache status() {
+    StatusCache cache = statusCache;
+    int version = statusVersion;
+    if (cache == null || cache.version != version) {
+      // A change racing with rendering bumps the version past the one recorded
+      // here, so a stale line is never served twice
+      StringBuilder out = new StringBuilder(64);
+      renderStatus(out);
+      cache = new StatusCache(version, out.toString());
+      statusCache = cache;
+    }
+    return cache;
+  }
+
+  private static final class StatusCache {
+    final int version;
+    final String text;
+    volatile byte[] utf8;
+
+    StatusCache(int version, String text) {
+      this.version = version;
+      this.text = text;
+    }
+  }
 }
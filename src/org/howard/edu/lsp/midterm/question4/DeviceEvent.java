@@ -0,0 +1,50 @@
+package org.howard.edu.lsp.midterm.question4;
+
+/**
+ * A device state change delivered by a {@link DeviceEventBus}.
+ * Events are slots in the bus's ring buffer and are reused once every
+ * subscriber has seen them, so handlers must copy what they need instead of
+ * keeping the event.
+ */
+public final class DeviceEvent {
+  public enum Type {
+    CONNECTED,
+    DISCONNECTED,
+    BATTERY_CHANGED,
+    HEARTBEAT
+  }
+
+  private Type type;
+  private Device device;
+  private long value;
+
+  DeviceEvent() {
+  }
+
+  void set(Type type, Device device, long value) {
+    this.type = type;
+    this.device = device;
+    this.value = value;
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  public Device getDevice() {
+    return device;
+  }
+
+  /**
+   * @return the battery percentage for BATTERY_CHANGED, the epoch seconds for
+   *     HEARTBEAT, and 0 otherwise
+   */
+  public long getValue() {
+    return value;
+  }
+
+  @Override
+  public String toString() {
+    return "DeviceEvent[type=" + type + ", id=" + device.getId() + ", value=" + value + "]";
+  }
+}
@@ -0,0 +1,290 @@
+package org.howard.edu.lsp.midterm.question4;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+
+/**
+ * Delivers device state changes to subscribers asynchronously.
+ * Events go into a preallocated ring buffer. Producers claim slots with a
+ * compare-and-set on a shared cursor, fill in the slot's event and mark it
+ * published. Each subscriber has its own consumer thread that follows the
+ * cursor and handles every published event, in batches of whatever has
+ * accumulated since its last pass.
+ *
+ * Producers never block. A slot can only be reused once every subscriber has
+ * handled it, so when the slowest subscriber falls a full ring behind, new
+ * events are dropped and counted instead. Size the ring for the longest
+ * pause a subscriber may take.
+ *
+ * Subscribers are added before {@link #start()}. Devices are connected to
+ * the bus with {@link #attach(Device)}, after which their connection,
+ * battery and heartbeat changes are published automatically.
+ *
+ * Anything a subscriber throws, errors included, is passed to the bus's
+ * error handler on the consumer thread, and the consumer moves on to the
+ * next event. By default failures go to the consumer thread's
+ * {@link Thread.UncaughtExceptionHandler}.
+ */
+public class DeviceEventBus implements DeviceStateListener, AutoCloseable {
+  public static final int DEFAULT_CAPACITY = 1 << 16;
+
+  private static final int SPIN_TRIES = 100;
+  private static final int YIELD_TRIES = 100;
+  private static final long PARK_NANOS = 50_000;
+
+  private final DeviceEvent[] ring;
+  private final int mask;
+  private final int indexShift;
+  /** Per slot, the lap number ({@code sequence >>> indexShift}) of the last event published there. */
+  private final AtomicIntegerArray published;
+  /** The highest claimed sequence. */
+  private final AtomicLong cursor = new AtomicLong(-1);
+  /** A recent minimum of the consumer sequences, so producers rarely scan them. */
+  private volatile long cachedGating = -1;
+  private final LongAdder dropped = new LongAdder();
+
+  // Copy-on-write, read by producers when the ring looks full
+  private volatile EventConsumer[] consumers = new EventConsumer[0];
+  private final ThreadFactory threadFactory;
+  private final BiConsumer<DeviceEvent, Throwable> errorHandler;
+  private volatile boolean running;
+  private boolean started;
+
+  public DeviceEventBus() {
+    this(DEFAULT_CAPACITY, task -> {
+      Thread thread = new Thread(task, "device-event-consumer");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * @param capacity the number of ring slots, a power of two
+   * @param threadFactory creates one consumer thread per subscriber
+   */
+  public DeviceEventBus(int capacity, ThreadFactory threadFactory) {
+    this(capacity, threadFactory, reportUncaught());
+  }
+
+  /**
+   * @param capacity the number of ring slots, a power of two
+   * @param threadFactory creates one consumer thread per subscriber
+   * @param errorHandler called on the consumer thread with the event and the
+   *        failure whenever a subscriber throws; the event is a reused ring
+   *        slot, so it must not be kept after the call
+   */
+  public DeviceEventBus(int capacity, ThreadFactory threadFactory,
+                        BiConsumer<DeviceEvent, Throwable> errorHandler) {
+    if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("Capacity must be a power of two");
+    }
+    if (errorHandler == null) {
+      throw new IllegalArgumentException("Invalid error handler");
+    }
+    ring = new DeviceEvent[capacity];
+    for (int i = 0; i < capacity; i++) {
+      ring[i] = new DeviceEvent();
+    }
+    mask = capacity - 1;
+    indexShift = Integer.numberOfTrailingZeros(capacity);
+    published = new AtomicIntegerArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      published.set(i, -1);
+    }
+    this.threadFactory = threadFactory;
+    this.errorHandler = errorHandler;
+  }
+
+  /**
+   * @return an error handler that passes failures to the current thread's
+   *         {@link Thread.UncaughtExceptionHandler}, which by default prints
+   *         the stack trace
+   */
+  public static BiConsumer<DeviceEvent, Throwable> reportUncaught() {
+    return (event, error) -> {
+      Thread thread = Thread.currentThread();
+      thread.getUncaughtExceptionHandler().uncaughtException(thread, error);
+    };
+  }
+
+  public synchronized void subscribe(DeviceEventHandler handler) {
+    if (started) {
+      throw new IllegalStateException("Subscribers must be added before the bus starts");
+    }
+    EventConsumer[] current = consumers;
+    EventConsumer[] updated = Arrays.copyOf(current, current.length + 1);
+    updated[current.length] = new EventConsumer(handler, cursor.get());
+    consumers = updated;
+  }
+
+  public synchronized void start() {
+    if (started) {
+      throw new IllegalStateException("Bus already started");
+    }
+    started = true;
+    running = true;
+    for (EventConsumer consumer : consumers) {
+      threadFactory.newThread(consumer).start();
+    }
+  }
+
+  /**
+   * Stops the consumer threads once they have handled the events published so far.
+   */
+  @Override
+  public void close() {
+    running = false;
+  }
+
+  public void attach(Device device) {
+    device.addStateListener(this);
+  }
+
+  public void detach(Device device) {
+    device.removeStateListener(this);
+  }
+
+  @Override
+  public void connectionChanged(Device device, boolean connected) {
+    publish(connected ? DeviceEvent.Type.CONNECTED : DeviceEvent.Type.DISCONNECTED, device, 0);
+  }
+
+  @Override
+  public void batteryChanged(Device device, int percent) {
+    publish(DeviceEvent.Type.BATTERY_CHANGED, device, percent);
+  }
+
+  @Override
+  public void heartbeatReceived(Device device, long epochSeconds) {
+    publish(DeviceEvent.Type.HEARTBEAT, device, epochSeconds);
+  }
+
+  /**
+   * Publishes an event without blocking.
+   *
+   * @return false if the ring was full and the event was dropped
+   */
+  public boolean publish(DeviceEvent.Type type, Device device, long value) {
+    long sequence;
+    do {
+      long current = cursor.get();
+      sequence = current + 1;
+      long wrapPoint = sequence - ring.length;
+      if (wrapPoint > cachedGating) {
+        long gating = minimumConsumerSequence(current);
+        cachedGating = gating;
+        if (wrapPoint > gating) {
+          dropped.increment();
+          return false;
+        }
+      }
+    } while (!cursor.compareAndSet(sequence - 1, sequence));
+
+    ring[(int) sequence & mask].set(type, device, value);
+    published.lazySet((int) sequence & mask, (int) (sequence >>> indexShift));
+    return true;
+  }
+
+  /**
+   * @return the number of events dropped because the ring was full
+   */
+  public long droppedCount() {
+    return dropped.sum();
+  }
+
+  /**
+   * @return the number of events accepted so far
+   */
+  public long publishedCount() {
+    return cursor.get() + 1;
+  }
+
+  private long minimumConsumerSequence(long fallback) {
+    long minimum = fallback;
+    for (EventConsumer consumer : consumers) {
+      minimum = Math.min(minimum, consumer.sequence.get());
+    }
+    return minimum;
+  }
+
+  private boolean isPublished(long sequence) {
+    return published.get((int) sequence & mask) == (int) (sequence >>> indexShift);
+  }
+
+  /** Follows the cursor on behalf of one subscriber. */
+  private final class EventConsumer implements Runnable {
+    final DeviceEventHandler handler;
+    /** The last sequence this subscriber has handled. */
+    final AtomicLong sequence;
+
+    /**
+     * @param start the sequence before the first event this subscriber sees
+     */
+    EventConsumer(DeviceEventHandler handler, long start) {
+      this.handler = handler;
+      this.sequence = new AtomicLong(start);
+    }
+
+    @Override
+    public void run() {
+      int idle = 0;
+      while (true) {
+        long next = sequence.get() + 1;
+        long claimed = cursor.get();
+        long available = next - 1;
+        // Claimed slots may still be being filled; stop at the first gap
+        while (available < claimed && isPublished(available + 1)) {
+          available++;
+        }
+        if (available < next) {
+          if (!running && claimed < next) {
+            return;
+          }
+          idle = backOff(idle);
+          continue;
+        }
+        idle = 0;
+        for (long s = next; s <= available; s++) {
+          DeviceEvent event = ring[(int) s & mask];
+          try {
+            handler.onEvent(event, s, s == available);
+          } catch (Throwable t) {
+            reportFailure(event, t);
+          }
+        }
+        sequence.lazySet(available);
+      }
+    }
+
+    /**
+     * Passes a subscriber failure to the error handler. A failure of the
+     * error handler itself goes to the thread's uncaught exception handler,
+     * so that the consumer keeps running either way.
+     */
+    private void reportFailure(DeviceEvent event, Throwable failure) {
+      try {
+        errorHandler.accept(event, failure);
+      } catch (Throwable t) {
+        t.addSuppressed(failure);
+        Thread thread = Thread.currentThread();
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+      }
+    }
+
+    private int backOff(int idle) {
+      if (idle < SPIN_TRIES) {
+        Thread.onSpinWait();
+      } else if (idle < SPIN_TRIES + YIELD_TRIES) {
+        Thread.yield();
+      } else {
+        LockSupport.parkNanos(PARK_NANOS);
+      }
+      return idle + 1;
+    }
+  }
+}
@@ -0,0 +1,15 @@
+package org.howard.edu.lsp.midterm.question4;
+
+/**
+ * Subscriber of a {@link DeviceEventBus}. Each handler runs on its own
+ * consumer thread and sees every event the bus accepted, in order.
+ */
+public interface DeviceEventHandler {
+  /**
+   * @param event the event; only valid for the duration of the call
+   * @param sequence the event's position in the bus, increasing by one per accepted event
+   * @param endOfBatch true for the last event currently available, a good
+   *     point to flush work buffered across the batch
+   */
+  void onEvent(DeviceEvent event, long sequence, boolean endOfBatch);
+}
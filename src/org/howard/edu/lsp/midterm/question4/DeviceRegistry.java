@@ -0,0 +1,246 @@
+package org.howard.edu.lsp.midterm.question4;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Thread-safe registry of devices keyed by id.
+ * Devices are spread over a fixed number of concurrent map shards by a hash
+ * of their id, and secondary indexes answer lookups by location, by
+ * capability interface (such as {@link Networked} or {@link BatteryPowered})
+ * and by connection state without scanning the fleet. No operation takes a
+ * registry-wide lock.
+ *
+ * The connection index follows each device through a
+ * {@link DeviceStateListener}, so it stays current as devices connect and
+ * disconnect. Query results are snapshots taken when the method is called.
+ *
+ * Registering and removing a device update its indexes and listener inside
+ * the id map's per-key update, so concurrent calls for the same id apply
+ * their changes one at a time and in the same order as the id map.
+ */
+public class DeviceRegistry {
+  private static final int DEFAULT_SHARDS = 64;
+  private static final ClassValue<Set<Class<?>>> CAPABILITIES = new ClassValue<Set<Class<?>>>() {
+    @Override
+    protected Set<Class<?>> computeValue(Class<?> type) {
+      return capabilitiesOf(type);
+    }
+  };
+
+  private final ConcurrentMap<String, Device>[] shards;
+  private final int mask;
+  private final ConcurrentMap<String, Set<Device>> byLocation = new ConcurrentHashMap<>();
+  private final ConcurrentMap<Class<?>, Set<Device>> byCapability = new ConcurrentHashMap<>();
+  private final Set<Device> connected = ConcurrentHashMap.newKeySet();
+  private final DeviceStateListener connectionTracker = (device, isConnected) -> refreshConnected(device);
+
+  public DeviceRegistry() {
+    this(DEFAULT_SHARDS);
+  }
+
+  /**
+   * @param shardCount the number of id shards, rounded up to a power of two
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public DeviceRegistry(int shardCount) {
+    if (shardCount < 1 || shardCount > 1 << 16) {
+      throw new IllegalArgumentException("Invalid shard count");
+    }
+    int count = shardCount == 1 ? 1 : Integer.highestOneBit(shardCount - 1) << 1;
+    shards = new ConcurrentMap[count];
+    for (int i = 0; i < count; i++) {
+      shards[i] = new ConcurrentHashMap<>();
+    }
+    mask = count - 1;
+  }
+
+  /**
+   * Adds a device to the registry and its indexes.
+   *
+   * @param device the device to add
+   * @return true if added, false if a device with the same id is already registered
+   */
+  public boolean register(Device device) {
+    if (device == null) {
+      throw new IllegalArgumentException("Invalid device");
+    }
+    boolean[] added = new boolean[1];
+    shardFor(device.getId()).compute(device.getId(), (id, existing) -> {
+      if (existing != null) {
+        return existing;
+      }
+      addToIndex(byLocation, device.getLocation(), device);
+      for (Class<?> capability : CAPABILITIES.get(device.getClass())) {
+        addToIndex(byCapability, capability, device);
+      }
+      device.addStateListener(connectionTracker);
+      added[0] = true;
+      return device;
+    });
+    if (!added[0]) {
+      return false;
+    }
+    // The id map only shows the device once compute returns
+    refreshConnected(device);
+    return true;
+  }
+
+  /**
+   * Removes a device from the registry and its indexes.
+   *
+   * @param id the device id
+   * @return the removed device, or null if none was registered under the id
+   */
+  public Device unregister(String id) {
+    Device[] removed = new Device[1];
+    shardFor(id).computeIfPresent(id, (key, device) -> {
+      device.removeStateListener(connectionTracker);
+      removeFromIndex(byLocation, device.getLocation(), device);
+      for (Class<?> capability : CAPABILITIES.get(device.getClass())) {
+        removeFromIndex(byCapability, capability, device);
+      }
+      removed[0] = device;
+      return null;
+    });
+    if (removed[0] != null) {
+      refreshConnected(removed[0]);
+    }
+    return removed[0];
+  }
+
+  public Device get(String id) {
+    return id == null ? null : shardFor(id).get(id);
+  }
+
+  public boolean contains(String id) {
+    return get(id) != null;
+  }
+
+  public int size() {
+    int size = 0;
+    for (ConcurrentMap<String, Device> shard : shards) {
+      size += shard.size();
+    }
+    return size;
+  }
+
+  public List<Device> findByLocation(String location) {
+    return snapshot(byLocation.get(location));
+  }
+
+  /**
+   * Returns the registered devices implementing an interface or extending a class.
+   *
+   * @param capability for example {@code Networked.class} or {@code BatteryPowered.class}
+   * @return the matching devices, typed as the capability
+   */
+  public <T> List<T> findByCapability(Class<T> capability) {
+    Set<Device> devices = byCapability.get(capability);
+    if (devices == null) {
+      return Collections.emptyList();
+    }
+    List<T> result = new ArrayList<>(devices.size());
+    for (Device device : devices) {
+      if (isRegistered(device)) {
+        result.add(capability.cast(device));
+      }
+    }
+    return result;
+  }
+
+  public List<Device> findConnected() {
+    return snapshot(connected);
+  }
+
+  public int connectedCount() {
+    return connected.size();
+  }
+
+  /**
+   * Brings a device's entry in the connection index in line with its current
+   * state and registration. Both are re-read after the update, so when two
+   * threads race the one that writes last also corrects the index.
+   */
+  private void refreshConnected(Device device) {
+    boolean tracked;
+    do {
+      tracked = isTracked(device);
+      if (tracked) {
+        connected.add(device);
+      } else {
+        connected.remove(device);
+      }
+    } while (tracked != isTracked(device));
+  }
+
+  private boolean isTracked(Device device) {
+    return device.isConnected() && isRegistered(device);
+  }
+
+  /**
+   * A registration adds index entries just before the id map shows the
+   * device, and a removal drops them just before the id map does, so a
+   * lookup racing with either may find an entry for a device that is not
+   * (or no longer) registered. Results are filtered through this check.
+   */
+  private boolean isRegistered(Device device) {
+    return get(device.getId()) == device;
+  }
+
+  private ConcurrentMap<String, Device> shardFor(String id) {
+    int h = id.hashCode();
+    return shards[(h ^ (h >>> 16)) & mask];
+  }
+
+  private static <K> void addToIndex(ConcurrentMap<K, Set<Device>> index, K key, Device device) {
+    index.compute(key, (k, devices) -> {
+      Set<Device> set = devices == null ? ConcurrentHashMap.newKeySet() : devices;
+      set.add(device);
+      return set;
+    });
+  }
+
+  private static <K> void removeFromIndex(ConcurrentMap<K, Set<Device>> index, K key, Device device) {
+    index.computeIfPresent(key, (k, devices) -> {
+      devices.remove(device);
+      return devices.isEmpty() ? null : devices;
+    });
+  }
+
+  private List<Device> snapshot(Set<Device> devices) {
+    if (devices == null) {
+      return Collections.emptyList();
+    }
+    List<Device> result = new ArrayList<>(devices.size());
+    for (Device device : devices) {
+      if (isRegistered(device)) {
+        result.add(device);
+      }
+    }
+    return result;
+  }
+
+  /** The device's class, its superclasses below Device, and every interface they implement. */
+  private static Set<Class<?>> capabilitiesOf(Class<?> type) {
+    Set<Class<?>> capabilities = new LinkedHashSet<>();
+    for (Class<?> c = type; c != null && c != Device.class; c = c.getSuperclass()) {
+      capabilities.add(c);
+      addInterfaces(c, capabilities);
+    }
+    return Collections.unmodifiableSet(capabilities);
+  }
+
+  private static void addInterfaces(Class<?> type, Set<Class<?>> capabilities) {
+    for (Class<?> capability : type.getInterfaces()) {
+      if (capabilities.add(capability)) {
+        addInterfaces(capability, capabilities);
+      }
+    }
+  }
+}
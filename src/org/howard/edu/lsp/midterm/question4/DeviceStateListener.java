@@ -0,0 +1,34 @@
+package org.howard.edu.lsp.midterm.question4;
+
+/**
+ * Receives state changes from the devices it is registered with.
+ * Callbacks run on the thread that changed the device, after the change.
+ */
+public interface DeviceStateListener {
+  /**
+   * Called when a device connects or disconnects.
+   *
+   * @param device the device whose connection state changed
+   * @param connected the new connection state
+   */
+  void connectionChanged(Device device, boolean connected);
+
+  /**
+   * Called after a device records a heartbeat.
+   *
+   * @param device the device that sent the heartbeat
+   * @param epochSeconds the recorded heartbeat time
+   */
+  default void heartbeatReceived(Device device, long epochSeconds) {
+  }
+
+  /**
+   * Called after a {@link BatteryPowered} device records a battery reading,
+   * whether or not the value changed.
+   *
+   * @param device the device reporting the reading
+   * @param percent the new battery percentage
+   */
+  default void batteryChanged(Device device, int percent) {
+  }
+}
@@ -36,13 +36,15 @@ public class DoorLock extends Device implements Networked, BatteryPowered {
       throw new IllegalArgumentException("battery 0..100");
     }
     this.batteryPercent = percent;
+    invalidateStatus();
+    fireBatteryChanged(percent);
   }
 
   // Status
   @Override
-  public String getStatus() {
+  protected void renderStatus(StringBuilder out) {
     String connStatus = isConnected() ? "up" : "down";
-    return "DoorLock[id=" + getId() + ", loc=" + getLocation() +
-           ", conn=" + connStatus + ", batt=" + batteryPercent + "%]";
+    out.append("DoorLock[id=").append(getId()).append(", loc=").append(getLocation())
+       .append(", conn=").append(connStatus).append(", batt=").append(batteryPercent).append("%]");
   }
 }
@@ -0,0 +1,323 @@
+package org.howard.edu.lsp.midterm.question4;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Packed state of a device fleet, stored as parallel primitive arrays indexed
+ * by a dense device number: a bitset of connection flags, one byte of battery
+ * percentage, one float of temperature (so readings keep about 7 significant
+ * digits) and one long of heartbeat time per device. Fleet-wide queries are
+ * plain loops over these arrays, which the JIT can unroll and vectorize,
+ * instead of walks over separate Device objects. Queries that select devices
+ * write matching device numbers to a caller-supplied {@code int[]} with room
+ * for {@link #size()} entries.
+ *
+ * Devices are copied in with {@link #add(Device)}, after which the table is
+ * the state of record; {@link #camera(int)}, {@link #doorLock(int)} and
+ * {@link #thermostat(int)} return typed views that read and write it.
+ * The table is not thread-safe; callers that share it must synchronize.
+ */
+public class FleetStateTable {
+  public static final byte CAMERA = 0;
+  public static final byte DOOR_LOCK = 1;
+  public static final byte THERMOSTAT = 2;
+
+  /** Battery value of devices without a battery; above every valid percentage. */
+  private static final byte NO_BATTERY = (byte) 0xFF;
+
+  private final String[] ids;
+  private final String[] locations;
+  private final byte[] kinds;
+  private final long[] connected;
+  private final byte[] battery;
+  private final float[] temperature;
+  private final long[] heartbeat;
+  private final Map<String, Integer> indexById = new HashMap<>();
+  private int size;
+
+  /**
+   * @param capacity the maximum number of devices
+   */
+  public FleetStateTable(int capacity) {
+    ids = new String[capacity];
+    locations = new String[capacity];
+    kinds = new byte[capacity];
+    connected = new long[(capacity + 63) >>> 6];
+    battery = new byte[capacity];
+    temperature = new float[capacity];
+    heartbeat = new long[capacity];
+  }
+
+  /**
+   * Copies a device's current state into the next row.
+   *
+   * @return the device number
+   * @throws IllegalArgumentException for unknown device types or duplicate ids
+   * @throws IllegalStateException if the table is full
+   */
+  public int add(Device device) {
+    byte kind;
+    if (device instanceof Camera) {
+      kind = CAMERA;
+    } else if (device instanceof DoorLock) {
+      kind = DOOR_LOCK;
+    } else if (device instanceof Thermostat) {
+      kind = THERMOSTAT;
+    } else {
+      throw new IllegalArgumentException("Unsupported device type: " + device.getClass().getName());
+    }
+    if (size == ids.length) {
+      throw new IllegalStateException("Fleet table is full");
+    }
+    if (indexById.putIfAbsent(device.getId(), size) != null) {
+      throw new IllegalArgumentException("Duplicate device id: " + device.getId());
+    }
+    int index = size++;
+    ids[index] = device.getId();
+    locations[index] = device.getLocation();
+    kinds[index] = kind;
+    setConnected(index, device.isConnected());
+    battery[index] = device instanceof BatteryPowered
+        ? (byte) ((BatteryPowered) device).getBatteryPercent()
+        : NO_BATTERY;
+    temperature[index] = device instanceof Thermostat
+        ? (float) ((Thermostat) device).getTemperatureC()
+        : Float.NaN;
+    heartbeat[index] = device.getLastHeartbeatEpochSeconds();
+    return index;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return the device number for the id, or -1 if none
+   */
+  public int indexOf(String id) {
+    Integer index = indexById.get(id);
+    return index == null ? -1 : index;
+  }
+
+  public String getId(int index) {
+    checkIndex(index);
+    return ids[index];
+  }
+
+  public String getLocation(int index) {
+    checkIndex(index);
+    return locations[index];
+  }
+
+  public byte getKind(int index) {
+    checkIndex(index);
+    return kinds[index];
+  }
+
+  public CameraView camera(int index) {
+    checkKind(index, CAMERA);
+    return new CameraView(index);
+  }
+
+  public DoorLockView doorLock(int index) {
+    checkKind(index, DOOR_LOCK);
+    return new DoorLockView(index);
+  }
+
+  public ThermostatView thermostat(int index) {
+    checkKind(index, THERMOSTAT);
+    return new ThermostatView(index);
+  }
+
+  /**
+   * Records the same heartbeat time for a batch of devices.
+   */
+  public void recordHeartbeats(int[] indexes, int length, long epochSeconds) {
+    for (int i = 0; i < length; i++) {
+      heartbeat[indexes[i]] = epochSeconds;
+    }
+  }
+
+  // Fleet-wide queries. Each is a single branch-free pass over primitive arrays.
+
+  public int countConnected() {
+    int count = 0;
+    int words = (size + 63) >>> 6;
+    for (int w = 0; w < words; w++) {
+      count += Long.bitCount(connected[w]);
+    }
+    return count;
+  }
+
+  public int countConnectedWithBatteryBelow(int percent) {
+    int count = 0;
+    for (int i = 0; i < size; i++) {
+      count += connectedBit(i) & below(battery[i], percent);
+    }
+    return count;
+  }
+
+  /**
+   * Writes the numbers of connected devices whose battery is below a percentage.
+   *
+   * @return the number of matches written
+   */
+  public int selectConnectedWithBatteryBelow(int percent, int[] out) {
+    int n = 0;
+    for (int i = 0; i < size; i++) {
+      out[n] = i;
+      n += connectedBit(i) & below(battery[i], percent);
+    }
+    return n;
+  }
+
+  /**
+   * Writes the numbers of devices whose last heartbeat is before a time.
+   *
+   * @return the number of matches written
+   */
+  public int selectHeartbeatBefore(long epochSeconds, int[] out) {
+    int n = 0;
+    for (int i = 0; i < size; i++) {
+      out[n] = i;
+      n += heartbeat[i] < epochSeconds ? 1 : 0;
+    }
+    return n;
+  }
+
+  /**
+   * Writes the numbers of thermostats reading outside {@code [min, max]}.
+   *
+   * @return the number of matches written
+   */
+  public int selectTemperatureOutside(float min, float max, int[] out) {
+    int n = 0;
+    for (int i = 0; i < size; i++) {
+      float t = temperature[i];
+      out[n] = i;
+      // NaN (not a thermostat) fails both comparisons
+      n += (t < min || t > max) ? 1 : 0;
+    }
+    return n;
+  }
+
+  private int connectedBit(int index) {
+    return (int) (connected[index >>> 6] >>> index) & 1;
+  }
+
+  private static int below(byte battery, int percent) {
+    return (battery & 0xFF) < percent ? 1 : 0;
+  }
+
+  private void setConnected(int index, boolean value) {
+    if (value) {
+      connected[index >>> 6] |= 1L << index;
+    } else {
+      connected[index >>> 6] &= ~(1L << index);
+    }
+  }
+
+  private void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IllegalArgumentException("Unknown device number: " + index);
+    }
+  }
+
+  private void checkKind(int index, byte kind) {
+    checkIndex(index);
+    if (kinds[index] != kind) {
+      throw new IllegalArgumentException("Device " + ids[index] + " is not of the requested type");
+    }
+  }
+
+  /** Common state of a row seen through a typed view. */
+  public abstract class DeviceView implements Networked {
+    final int index;
+
+    DeviceView(int index) {
+      this.index = index;
+    }
+
+    public int getIndex() {
+      return index;
+    }
+
+    public String getId() {
+      return ids[index];
+    }
+
+    public String getLocation() {
+      return locations[index];
+    }
+
+    public long getLastHeartbeatEpochSeconds() {
+      return heartbeat[index];
+    }
+
+    public void heartbeat() {
+      heartbeat[index] = System.currentTimeMillis() / 1000;
+    }
+
+    @Override
+    public void connect() {
+      setConnected(index, true);
+    }
+
+    @Override
+    public void disconnect() {
+      setConnected(index, false);
+    }
+
+    @Override
+    public boolean isConnected() {
+      return connectedBit(index) == 1;
+    }
+  }
+
+  /** Battery state shared by cameras and door locks. */
+  public abstract class BatteryView extends DeviceView implements BatteryPowered {
+    BatteryView(int index) {
+      super(index);
+    }
+
+    @Override
+    public int getBatteryPercent() {
+      return battery[index];
+    }
+
+    @Override
+    public void setBatteryPercent(int percent) {
+      if (percent < 0 || percent > 100) {
+        throw new IllegalArgumentException("battery 0..100");
+      }
+      battery[index] = (byte) percent;
+    }
+  }
+
+  public final class CameraView extends BatteryView {
+    CameraView(int index) {
+      super(index);
+    }
+  }
+
+  public final class DoorLockView extends BatteryView {
+    DoorLockView(int index) {
+      super(index);
+    }
+  }
+
+  public final class ThermostatView extends DeviceView {
+    ThermostatView(int index) {
+      super(index);
+    }
+
+    public double getTemperatureC() {
+      return temperature[index];
+    }
+
+    public void setTemperatureC(double temperatureC) {
+      temperature[index] = (float) temperatureC;
+    }
+  }
+}
@@ -0,0 +1,178 @@
+package org.howard.edu.lsp.midterm.question4;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Stores heartbeat timestamps for many devices in primitive arrays indexed by
+ * a dense slot number, and applies heartbeats in batches.
+ * Binding a device gives it a slot; from then on the device's
+ * {@link Device#getLastHeartbeatEpochSeconds()} and {@link Device#heartbeat()}
+ * read and write its entry in this table.
+ *
+ * Gateways resolve device ids to slots once with {@link #slotOf(String)} and
+ * then pass reusable {@code int[]} buffers of slots, so recording a batch
+ * allocates nothing. Timestamps are written in one pass over pages of 4096
+ * entries; listeners of the affected devices are notified in a second pass.
+ * Writes have the same visibility as the plain field they replace.
+ */
+public class HeartbeatTable {
+  private static final int PAGE_BITS = 12;
+  private static final int PAGE_SIZE = 1 << PAGE_BITS;
+  private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+  private final ConcurrentMap<String, Integer> slotsById = new ConcurrentHashMap<>();
+  // Pages never move once allocated, so growing the table loses no concurrent writes
+  private volatile long[][] timestamps = new long[1][PAGE_SIZE];
+  private volatile Device[][] devices = new Device[1][PAGE_SIZE];
+  private volatile int size;
+
+  /**
+   * Assigns the next slot to a device and binds the device to it, carrying over
+   * its last heartbeat.
+   *
+   * @return the device's slot
+   * @throws IllegalArgumentException if another device with the same id is bound
+   * @throws IllegalStateException if the device is bound to another table
+   */
+  public synchronized int bind(Device device) {
+    Integer existing = slotsById.get(device.getId());
+    if (existing != null) {
+      if (device(existing) == device) {
+        return existing;
+      }
+      throw new IllegalArgumentException("Duplicate device id: " + device.getId());
+    }
+    int slot = size;
+    int page = slot >>> PAGE_BITS;
+    if (page == timestamps.length) {
+      long[][] grownTimestamps = Arrays.copyOf(timestamps, page * 2);
+      Device[][] grownDevices = Arrays.copyOf(devices, page * 2);
+      for (int i = page; i < grownTimestamps.length; i++) {
+        grownTimestamps[i] = new long[PAGE_SIZE];
+        grownDevices[i] = new Device[PAGE_SIZE];
+      }
+      timestamps = grownTimestamps;
+      devices = grownDevices;
+    }
+    timestamps[page][slot & PAGE_MASK] = device.getLastHeartbeatEpochSeconds();
+    devices[page][slot & PAGE_MASK] = device;
+    device.bindHeartbeatTable(this, slot);
+    slotsById.put(device.getId(), slot);
+    size = slot + 1;
+    return slot;
+  }
+
+  /**
+   * @return the slot bound to the id, or -1 if none
+   */
+  public int slotOf(String id) {
+    Integer slot = slotsById.get(id);
+    return slot == null ? -1 : slot;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public Device device(int slot) {
+    checkSlot(slot);
+    return devices[slot >>> PAGE_BITS][slot & PAGE_MASK];
+  }
+
+  public long get(int slot) {
+    checkSlot(slot);
+    return timestamps[slot >>> PAGE_BITS][slot & PAGE_MASK];
+  }
+
+  /**
+   * Records one heartbeat without notifying listeners.
+   */
+  void record(int slot, long epochSeconds) {
+    checkSlot(slot);
+    timestamps[slot >>> PAGE_BITS][slot & PAGE_MASK] = epochSeconds;
+  }
+
+  /**
+   * Records heartbeats sharing one timestamp.
+   *
+   * @param slots the slots that sent a heartbeat; only the first {@code length} are read
+   * @param length the number of slots in the batch
+   * @param epochSeconds the heartbeat time
+   */
+  public void recordBatch(int[] slots, int length, long epochSeconds) {
+    checkBatch(slots, length);
+    long[][] pages = timestamps;
+    for (int i = 0; i < length; i++) {
+      int slot = slots[i];
+      pages[slot >>> PAGE_BITS][slot & PAGE_MASK] = epochSeconds;
+    }
+    Device[][] devicePages = devices;
+    for (int i = 0; i < length; i++) {
+      int slot = slots[i];
+      devicePages[slot >>> PAGE_BITS][slot & PAGE_MASK].fireHeartbeat(epochSeconds);
+    }
+  }
+
+  /**
+   * Records heartbeats with a timestamp per slot.
+   *
+   * @param slots the slots that sent a heartbeat; only the first {@code length} are read
+   * @param epochSeconds the heartbeat time of each slot, in the same order
+   * @param length the number of slots in the batch
+   */
+  public void recordBatch(int[] slots, long[] epochSeconds, int length) {
+    checkBatch(slots, length);
+    if (epochSeconds.length < length) {
+      throw new IllegalArgumentException("Fewer timestamps than slots");
+    }
+    long[][] pages = timestamps;
+    for (int i = 0; i < length; i++) {
+      int slot = slots[i];
+      pages[slot >>> PAGE_BITS][slot & PAGE_MASK] = epochSeconds[i];
+    }
+    Device[][] devicePages = devices;
+    for (int i = 0; i < length; i++) {
+      int slot = slots[i];
+      devicePages[slot >>> PAGE_BITS][slot & PAGE_MASK].fireHeartbeat(epochSeconds[i]);
+    }
+  }
+
+  /**
+   * Records heartbeats for device ids sharing one timestamp. Unknown ids are skipped.
+   *
+   * @return the number of heartbeats recorded
+   */
+  public int recordBatch(String[] ids, long epochSeconds) {
+    int[] slots = new int[ids.length];
+    int length = 0;
+    for (String id : ids) {
+      int slot = slotOf(id);
+      if (slot >= 0) {
+        slots[length++] = slot;
+      }
+    }
+    recordBatch(slots, length, epochSeconds);
+    return length;
+  }
+
+  private void checkSlot(int slot) {
+    if (slot < 0 || slot >= size) {
+      throw new IllegalArgumentException("Unknown heartbeat slot: " + slot);
+    }
+  }
+
+  /** Validates the whole batch up front so that a bad slot applies none of it. */
+  private void checkBatch(int[] slots, int length) {
+    if (length < 0 || length > slots.length) {
+      throw new IllegalArgumentException("Invalid batch length: " + length);
+    }
+    int bound = size;
+    for (int i = 0; i < length; i++) {
+      if (slots[i] < 0 || slots[i] >= bound) {
+        throw new IllegalArgumentException("Unknown heartbeat slot: " + slots[i]);
+      }
+    }
+  }
+}
@@ -0,0 +1,333 @@
+package org.howard.edu.lsp.midterm.question4;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Detects devices that stop sending heartbeats.
+ * Watched devices are scheduled on a hierarchical timing wheel driven by one
+ * background thread. Time is counted in ticks (100 ms by default); each tick
+ * the thread visits a single slot of the lowest wheel, and once per rotation
+ * of a wheel it moves one slot of the next wheel down. The work per tick is
+ * therefore bounded by the devices due around that tick, not by the fleet size.
+ *
+ * A heartbeat only writes the device's new deadline, in O(1) and without
+ * touching the wheel. When a device's slot comes due the thread checks the
+ * deadline, and either moves the device to its later slot or reports it as
+ * expired. An expired device is scheduled again by its next heartbeat.
+ *
+ * Anything the expiry callback throws, errors included, is passed to the
+ * monitor's error handler and the worker carries on with the next device.
+ * By default failures go to the worker thread's
+ * {@link Thread.UncaughtExceptionHandler}.
+ */
+public class LivenessMonitor implements AutoCloseable {
+  public static final Duration DEFAULT_TICK = Duration.ofMillis(100);
+
+  /** Slot counts per wheel level, as bit widths: 256 ticks, then 64 times as many per level. */
+  private static final int[] LEVEL_BITS = {8, 6, 6, 6, 6};
+  private static final AtomicIntegerFieldUpdater<Entry> EXPIRED =
+      AtomicIntegerFieldUpdater.newUpdater(Entry.class, "expired");
+
+  private final long tickNanos;
+  private final long timeoutTicks;
+  private final Consumer<Device> onExpired;
+  private final BiConsumer<Device, Throwable> onError;
+  private final Thread worker;
+
+  private final ConcurrentMap<Device, Entry> entries = new ConcurrentHashMap<>();
+  /** Entries waiting to be put on the wheel by the worker thread. */
+  private final Queue<Entry> pending = new ConcurrentLinkedQueue<>();
+  private final Entry[][] wheels = new Entry[LEVEL_BITS.length][];
+  private final int[] shifts = new int[LEVEL_BITS.length];
+
+  /** The last tick the worker has processed. */
+  private volatile long currentTick;
+  private volatile boolean running;
+
+  /**
+   * Creates a monitor with the default tick that disconnects expired
+   * {@link Networked} devices.
+   *
+   * @param timeout how long a device may go without a heartbeat
+   */
+  public LivenessMonitor(Duration timeout) {
+    this(timeout, DEFAULT_TICK, disconnectNetworked(), defaultThreadFactory());
+  }
+
+  /**
+   * @param timeout how long a device may go without a heartbeat
+   * @param tick the detection granularity; expiries are reported up to one tick late
+   * @param onExpired called on the monitor thread for each expired device
+   * @param threadFactory creates the monitor thread
+   */
+  public LivenessMonitor(Duration timeout, Duration tick, Consumer<Device> onExpired,
+                         ThreadFactory threadFactory) {
+    this(timeout, tick, onExpired, reportUncaught(), threadFactory);
+  }
+
+  /**
+   * @param timeout how long a device may go without a heartbeat
+   * @param tick the detection granularity; expiries are reported up to one tick late
+   * @param onExpired called on the monitor thread for each expired device
+   * @param onError called on the monitor thread with the device and the
+   *        failure whenever {@code onExpired} throws
+   * @param threadFactory creates the monitor thread
+   */
+  public LivenessMonitor(Duration timeout, Duration tick, Consumer<Device> onExpired,
+                         BiConsumer<Device, Throwable> onError, ThreadFactory threadFactory) {
+    if (timeout.isNegative() || timeout.isZero() || tick.isNegative() || tick.isZero()) {
+      throw new IllegalArgumentException("Invalid timeout or tick");
+    }
+    if (onExpired == null) {
+      throw new IllegalArgumentException("Invalid expiry callback");
+    }
+    if (onError == null) {
+      throw new IllegalArgumentException("Invalid error handler");
+    }
+    this.tickNanos = tick.toNanos();
+    this.timeoutTicks = Math.max(1, (timeout.toNanos() + tickNanos - 1) / tickNanos);
+    this.onExpired = onExpired;
+    this.onError = onError;
+    int shift = 0;
+    for (int level = 0; level < LEVEL_BITS.length; level++) {
+      wheels[level] = new Entry[1 << LEVEL_BITS[level]];
+      shifts[level] = shift;
+      shift += LEVEL_BITS[level];
+    }
+    this.worker = threadFactory.newThread(this::run);
+  }
+
+  /**
+   * @return a callback that disconnects devices implementing {@link Networked}
+   */
+  public static Consumer<Device> disconnectNetworked() {
+    return device -> {
+      if (device instanceof Networked) {
+        ((Networked) device).disconnect();
+      }
+    };
+  }
+
+  /**
+   * @return an error handler that passes failures to the current thread's
+   *         {@link Thread.UncaughtExceptionHandler}, which by default prints
+   *         the stack trace
+   */
+  public static BiConsumer<Device, Throwable> reportUncaught() {
+    return (device, error) -> {
+      Thread thread = Thread.currentThread();
+      thread.getUncaughtExceptionHandler().uncaughtException(thread, error);
+    };
+  }
+
+  private static ThreadFactory defaultThreadFactory() {
+    return task -> {
+      Thread thread = new Thread(task, "liveness-monitor");
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  public void start() {
+    running = true;
+    worker.start();
+  }
+
+  @Override
+  public void close() {
+    running = false;
+    LockSupport.unpark(worker);
+  }
+
+  /**
+   * Starts watching a device. Its first deadline is one timeout from now.
+   *
+   * @return false if the device is already watched
+   */
+  public boolean watch(Device device) {
+    Entry entry = new Entry(device);
+    if (entries.putIfAbsent(device, entry) != null) {
+      return false;
+    }
+    entry.deadline = currentTick + timeoutTicks;
+    device.addStateListener(entry);
+    pending.add(entry);
+    return true;
+  }
+
+  /**
+   * Stops watching a device. It is dropped from the wheel when its slot next comes due.
+   *
+   * @return false if the device was not watched
+   */
+  public boolean unwatch(Device device) {
+    Entry entry = entries.remove(device);
+    if (entry == null) {
+      return false;
+    }
+    entry.cancelled = true;
+    device.removeStateListener(entry);
+    return true;
+  }
+
+  public int watchedCount() {
+    return entries.size();
+  }
+
+  private void heartbeat(Entry entry) {
+    entry.deadline = currentTick + timeoutTicks;
+    // Put the entry back on the wheel if the worker expired it
+    if (entry.expired == 1 && EXPIRED.compareAndSet(entry, 1, 0)) {
+      pending.add(entry);
+    }
+  }
+
+  private void run() {
+    long start = System.nanoTime();
+    long tick = 0;
+    while (running) {
+      long wait = start + (tick + 1) * tickNanos - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(this, wait);
+        continue;
+      }
+      tick++;
+      drainPending(tick);
+      advance(tick);
+      currentTick = tick;
+    }
+  }
+
+  private void drainPending(long tick) {
+    for (Entry entry = pending.poll(); entry != null; entry = pending.poll()) {
+      if (!entry.cancelled) {
+        schedule(entry, entry.deadline, tick);
+      }
+    }
+  }
+
+  /**
+   * Moves every level's due slot down a level at the start of its rotation,
+   * then handles the entries due at this tick.
+   */
+  private void advance(long tick) {
+    for (int level = 1; level < LEVEL_BITS.length; level++) {
+      if ((tick & ((1L << shifts[level]) - 1)) != 0) {
+        break;
+      }
+      Entry entry = takeSlot(level, tick);
+      while (entry != null) {
+        Entry next = entry.next;
+        schedule(entry, entry.scheduledTick, tick);
+        entry = next;
+      }
+    }
+
+    Entry entry = takeSlot(0, tick);
+    while (entry != null) {
+      Entry next = entry.next;
+      entry.next = null;
+      if (!entry.cancelled) {
+        expireOrReschedule(entry, tick);
+      }
+      entry = next;
+    }
+  }
+
+  private void expireOrReschedule(Entry entry, long tick) {
+    long deadline = entry.deadline;
+    if (deadline > tick) {
+      schedule(entry, deadline, tick);
+      return;
+    }
+    entry.expired = 1;
+    // A heartbeat may have landed after the deadline was read
+    if (entry.deadline > tick) {
+      if (EXPIRED.compareAndSet(entry, 1, 0)) {
+        schedule(entry, entry.deadline, tick);
+      }
+      return;
+    }
+    try {
+      onExpired.accept(entry.device);
+    } catch (Throwable t) {
+      reportFailure(entry.device, t);
+    }
+  }
+
+  /**
+   * Passes a callback failure to the error handler. A failure of the error
+   * handler itself goes to the thread's uncaught exception handler, so that
+   * the worker keeps running either way.
+   */
+  private void reportFailure(Device device, Throwable failure) {
+    try {
+      onError.accept(device, failure);
+    } catch (Throwable t) {
+      t.addSuppressed(failure);
+      Thread thread = Thread.currentThread();
+      thread.getUncaughtExceptionHandler().uncaughtException(thread, t);
+    }
+  }
+
+  /**
+   * Puts an entry in the lowest level whose current rotation contains its
+   * expiry tick. Ticks beyond the top level's rotation land in its last
+   * reachable slot and are rescheduled from there.
+   */
+  private void schedule(Entry entry, long expiry, long tick) {
+    expiry = Math.max(expiry, tick + 1);
+    int level = 0;
+    while (level < LEVEL_BITS.length - 1 && (expiry >>> shifts[level + 1]) != (tick >>> shifts[level + 1])) {
+      level++;
+    }
+    Entry[] wheel = wheels[level];
+    int slot = (int) (expiry >>> shifts[level]) & (wheel.length - 1);
+    entry.scheduledTick = expiry;
+    entry.next = wheel[slot];
+    wheel[slot] = entry;
+  }
+
+  private Entry takeSlot(int level, long tick) {
+    Entry[] wheel = wheels[level];
+    int slot = (int) (tick >>> shifts[level]) & (wheel.length - 1);
+    Entry head = wheel[slot];
+    wheel[slot] = null;
+    return head;
+  }
+
+  /** A watched device; also listens to it for heartbeats. */
+  private final class Entry implements DeviceStateListener {
+    final Device device;
+    volatile long deadline;
+    volatile boolean cancelled;
+    /** 1 once the worker has reported the device expired, until its next heartbeat. */
+    volatile int expired;
+
+    // Worker thread only
+    long scheduledTick;
+    Entry next;
+
+    Entry(Device device) {
+      this.device = device;
+    }
+
+    @Override
+    public void connectionChanged(Device device, boolean connected) {
+    }
+
+    @Override
+    public void heartbeatReceived(Device device, long epochSeconds) {
+      heartbeat(this);
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package org.howard.edu.lsp.midterm.question4;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Writes the status lines of many devices into one shared buffer for export.
+ * Lines come from each device's status cache, so exporting a fleet whose
+ * state has not changed creates no Strings or byte arrays.
+ */
+public final class StatusExporter {
+
+  private StatusExporter() {
+  }
+
+  /**
+   * Appends each device's status followed by a newline.
+   */
+  public static void appendStatuses(Iterable<? extends Device> devices, StringBuilder out) {
+    for (Device device : devices) {
+      device.appendStatus(out);
+      out.append('\n');
+    }
+  }
+
+  /**
+   * Writes UTF-8 status lines, each followed by a newline, starting at
+   * {@code devices.get(from)} and stopping before the first line that does
+   * not fit in the buffer. Callers drain the buffer and call again with the
+   * returned index until it reaches {@code devices.size()}.
+   *
+   * @return the index of the first device not written
+   * @throws IllegalArgumentException if a single line does not fit in an empty buffer
+   */
+  public static int writeStatuses(List<? extends Device> devices, int from, ByteBuffer out) {
+    int i = from;
+    for (; i < devices.size(); i++) {
+      byte[] line = devices.get(i).statusBytes();
+      if (line.length + 1 > out.remaining()) {
+        if (out.position() == 0) {
+          throw new IllegalArgumentException("Buffer too small for status of " + devices.get(i).getId());
+        }
+        break;
+      }
+      out.put(line).put((byte) '\n');
+    }
+    return i;
+  }
+}
@@ -14,6 +14,7 @@ public class Thermostat extends Device implements Networked {
 
   public void setTemperatureC(double temperatureC) {
     this.temperatureC = temperatureC;
+    invalidateStatus();
   }
 
   // Networked
@@ -34,9 +35,9 @@ public class Thermostat extends Device implements Networked {
 
   // Status
   @Override
-  public String getStatus() {
+  protected void renderStatus(StringBuilder out) {
     String connStatus = isConnected() ? "up" : "down";
-    return "Thermostat[id=" + getId() + ", loc=" + getLocation() +
-           ", conn=" + connStatus + ", tempC=" + temperatureC + "]";
+    out.append("Thermostat[id=").append(getId()).append(", loc=").append(getLocation())
+       .append(", conn=").append(connStatus).append(", tempC=").append(temperatureC).append("]");
   }
 }
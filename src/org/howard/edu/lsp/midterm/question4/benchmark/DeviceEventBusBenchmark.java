@@ -0,0 +1,90 @@
+package org.howard.edu.lsp.midterm.question4.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.howard.edu.lsp.midterm.question4.Camera;
+import org.howard.edu.lsp.midterm.question4.DeviceEvent;
+import org.howard.edu.lsp.midterm.question4.DeviceEventBus;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures DeviceEventBus publishing throughput with a given number of
+ * subscribers. Run with {@code -t N} for N producer threads. Besides the
+ * publish rate, the {@code accepted} and {@code dropped} counters show how
+ * many events the subscribers kept up with.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeviceEventBusBenchmark {
+
+  @Param({"65536"})
+  public int capacity;
+
+  @Param({"1", "4"})
+  public int subscribers;
+
+  private DeviceEventBus bus;
+  private Camera camera;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    bus = new DeviceEventBus(capacity, task -> {
+      Thread thread = new Thread(task, "bench-consumer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    for (int i = 0; i < subscribers; i++) {
+      long[] sum = new long[1];
+      bus.subscribe((event, sequence, endOfBatch) -> sum[0] += event.getValue());
+    }
+    bus.start();
+    camera = new Camera("bench", "lab", 100);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    bus.close();
+  }
+
+  /** Per-thread outcome counts, reported as events per second. */
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class Outcome {
+    public long accepted;
+    public long dropped;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      accepted = 0;
+      dropped = 0;
+    }
+  }
+
+  @Benchmark
+  public boolean publish(Outcome outcome) {
+    boolean accepted = bus.publish(DeviceEvent.Type.BATTERY_CHANGED, camera, 42);
+    if (accepted) {
+      outcome.accepted++;
+    } else {
+      outcome.dropped++;
+    }
+    return accepted;
+  }
+}